@@ -0,0 +1,128 @@
+#!/usr/bin/env bash
+#
+# Measures how long a new instance takes to serve its first API request: the plain jar, the AOT-processed jar
+# with its CDS archive under the fast-startup profile, and the native image when one has been built.
+#
+# Every mode runs against the same database, migrated once beforehand by the plain jar, the way a scaled-out
+# instance joins an existing schema. The clock starts at launch and stops at the first 200 from
+# GET /api/v1/customers; the log's own "Started ... in" figure (context only, no request) is shown beside it.
+#
+# The database is a file-based H2 one by default. H2 is not packaged, so the jars get the copy from
+# target/bench-startup-lib on their classpath and the native image (which cannot load it) is skipped. Set DB_URL,
+# DB_USERNAME and DB_PASSWORD to run every mode, native included, against MySQL instead.
+#
+# Requirements: mvn -B -Pfast-startup package (the exec jar, target/application and its CDS archive, H2), curl.
+# For the native row, also mvn -B -Pfast-startup,native native:compile.
+#
+# Usage: scripts/bench-startup.sh
+#   RUNS=10 MAX_STARTUP_MS=800 scripts/bench-startup.sh
+#   DB_URL=jdbc:mysql://localhost:3306/cms_bench DB_USERNAME=root DB_PASSWORD=secret scripts/bench-startup.sh
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${RUNS:-5}"
+PORT="${PORT:-8083}"
+# fail when the fast-startup median is slower than this; unset only reports
+MAX_STARTUP_MS="${MAX_STARTUP_MS:-}"
+OUT="${OUT:-target/bench-startup}"
+JAR="$(ls target/*-exec.jar | head -n 1)"
+CDS_JAR="target/application/$(basename "$JAR")"
+NATIVE="target/customer-management-system-api"
+H2_JAR="target/bench-startup-lib/h2.jar"
+PROBE="http://localhost:${PORT}/api/v1/customers?page=0&size=1"
+
+rm -rf "$OUT"
+mkdir -p "$OUT"
+
+if [ -n "${DB_URL:-}" ]; then
+  db_args=(
+    --server.port="$PORT"
+    --spring.datasource.url="$DB_URL"
+    --spring.datasource.username="${DB_USERNAME:-}"
+    --spring.datasource.password="${DB_PASSWORD:-}"
+  )
+else
+  db_args=(
+    --server.port="$PORT"
+    --spring.datasource.url="jdbc:h2:file:$PWD/$OUT/db/cms;MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+    --spring.datasource.driver-class-name=org.h2.Driver
+    --spring.datasource.username=sa
+    --spring.datasource.password=
+    --spring.jpa.database-platform=org.hibernate.dialect.H2Dialect
+  )
+fi
+
+# The exec jar through PropertiesLauncher, which adds loader.path to the jar's own classpath.
+jar_cmd=(java -Dloader.path="$H2_JAR" -cp "$JAR" org.springframework.boot.loader.launch.PropertiesLauncher)
+# The same classpath the CDS archive was trained with (see cds-train in pom.xml).
+fast_cmd=(java -XX:SharedArchiveFile=target/application/application.jsa -Dspring.aot.enabled=true
+  -cp "$CDS_JAR:$H2_JAR" com.nuwandev.cms.Main)
+
+now_ms() {
+  echo $(($(date +%s%N) / 1000000))
+}
+
+# Starts the command in the background and sets ELAPSED_MS to the time until the probe first answers 200.
+time_first_request() {
+  local log="$1"
+  shift
+  local started
+  started=$(now_ms)
+  "$@" > "$log" 2>&1 &
+  APP_PID=$!
+  until curl -sf -o /dev/null "$PROBE"; do
+    kill -0 "$APP_PID" 2> /dev/null || { echo "application exited, see $log" >&2; exit 1; }
+    sleep 0.01
+  done
+  ELAPSED_MS=$(($(now_ms) - started))
+}
+
+stop_app() {
+  kill "$APP_PID"
+  wait "$APP_PID" 2> /dev/null || true
+}
+
+run() {
+  local mode="$1"
+  shift
+  for i in $(seq 1 "$RUNS"); do
+    time_first_request "$OUT/${mode}-${i}.log" "$@"
+    stop_app
+    local reported
+    reported=$(grep -o 'Started [A-Za-z]* in [0-9.]* seconds' "$OUT/${mode}-${i}.log" | awk '{ print $4 * 1000 }' || true)
+    echo "$mode $ELAPSED_MS ${reported:-?}" >> "$OUT/results.txt"
+  done
+}
+
+median() {
+  awk -v mode="$1" '$1 == mode { print $2 }' "$OUT/results.txt" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+echo "Migrating the benchmark database"
+time_first_request "$OUT/migrate.log" "${jar_cmd[@]}" "${db_args[@]}"
+stop_app
+
+run jar "${jar_cmd[@]}" "${db_args[@]}"
+run fast-startup "${fast_cmd[@]}" --spring.profiles.active=fast-startup "${db_args[@]}"
+if [ -x "$NATIVE" ] && [ -n "${DB_URL:-}" ]; then
+  run native "$NATIVE" --spring.profiles.active=fast-startup "${db_args[@]}"
+elif [ -x "$NATIVE" ]; then
+  echo "Skipping the native image: it has no H2 driver, set DB_URL to run it against MySQL"
+fi
+
+printf '\n| mode | first request ms (median) | runs | context started ms |\n|---|---|---|---|\n'
+for mode in jar fast-startup native; do
+  grep -q "^$mode " "$OUT/results.txt" || continue
+  awk -v mode="$mode" -v median="$(median "$mode")" '
+    $1 == mode { runs = runs sep $2; started = started sep $3; sep = ", " }
+    END { printf "| %s | %s | %s | %s |\n", mode, median, runs, started }' "$OUT/results.txt"
+done
+echo
+echo "Application logs: $OUT"
+
+if [ -n "$MAX_STARTUP_MS" ] && [ "$(median fast-startup)" -gt "$MAX_STARTUP_MS" ]; then
+  echo "fast-startup median $(median fast-startup) ms is over MAX_STARTUP_MS=$MAX_STARTUP_MS" >&2
+  exit 1
+fi
@@ -0,0 +1,100 @@
+#!/usr/bin/env bash
+#
+# Compares platform-thread and virtual-thread request handling under the same blocking MySQL workload.
+#
+# Both runs use the same jar, database and connection pool size, so the only difference is the
+# spring.threads.virtual.enabled switch (the virtual-threads profile). Tomcat keeps its default of 200
+# platform threads in the first run.
+#
+# Requirements: a built jar (mvn -B package), a reachable MySQL configured through the same DB_* variables
+# as the dev profile, plus oha (https://github.com/hatoo/oha), jq and curl on the PATH.
+#
+# Usage: scripts/bench-virtual-threads.sh
+#   CONCURRENCY=1000 DURATION=60s SEED=50000 DB_POOL_SIZE=50 scripts/bench-virtual-threads.sh
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CONCURRENCY="${CONCURRENCY:-1000}"
+DURATION="${DURATION:-60s}"
+WARMUP="${WARMUP:-15s}"
+SEED="${SEED:-50000}"
+PORT="${PORT:-8081}"
+export DB_POOL_SIZE="${DB_POOL_SIZE:-50}"
+BASE="http://localhost:${PORT}/api/v1/customers"
+OUT="${OUT:-target/bench-virtual-threads}"
+JAR="$(ls target/*-exec.jar | head -n 1)"
+
+mkdir -p "$OUT"
+
+start_app() {
+  local profiles="$1"
+  # Pinning shows up as stack traces in the log; the JFR recording keeps jdk.VirtualThreadPinned events.
+  java -Djdk.tracePinnedThreads=short \
+       -XX:StartFlightRecording=filename="$OUT/${profiles//,/-}.jfr",settings=profile \
+       -jar "$JAR" \
+       --spring.profiles.active="$profiles" \
+       --server.port="$PORT" \
+       --spring.datasource.hikari.maximum-pool-size="$DB_POOL_SIZE" \
+       > "$OUT/${profiles//,/-}.log" 2>&1 &
+  APP_PID=$!
+  until curl -sf "http://localhost:${PORT}/actuator/health" > /dev/null; do
+    kill -0 "$APP_PID" 2> /dev/null || { echo "application exited, see $OUT/${profiles//,/-}.log" >&2; exit 1; }
+    sleep 1
+  done
+}
+
+stop_app() {
+  kill "$APP_PID"
+  wait "$APP_PID" 2> /dev/null || true
+}
+
+seed() {
+  local existing
+  existing=$(curl -sf "${BASE}?page=0&size=1&count=exact" | jq '.totalElements')
+  if [ "$existing" -ge "$SEED" ]; then
+    return
+  fi
+  echo "Seeding $((SEED - existing)) customers"
+  seq "$existing" $((SEED - 1)) \
+    | awk '{ printf "{\"firstName\":\"First%d\",\"lastName\":\"Last%d\",\"email\":\"bench%d@example.com\",\"phone\":\"+1555%07d\",\"status\":\"ACTIVE\"}\n", $1, $1 % 997, $1, $1 }' \
+    | curl -sf -X POST -H 'Content-Type: application/x-ndjson' --data-binary @- "${BASE}/import" > /dev/null
+}
+
+# Each scenario waits on MySQL for every request: an offset listing, and a ranked search.
+scenarios=(
+  "list|${BASE}?page=50&size=20&sort=lastName&order=asc"
+  "search|${BASE}/search?q=last12&limit=20"
+)
+
+run() {
+  local mode="$1" profiles="$2"
+  start_app "$profiles"
+  seed
+  for scenario in "${scenarios[@]}"; do
+    local name="${scenario%%|*}" url="${scenario#*|}"
+    oha --no-tui -z "$WARMUP" -c "$CONCURRENCY" "$url" > /dev/null
+    oha --no-tui -j -z "$DURATION" -c "$CONCURRENCY" "$url" > "$OUT/${mode}-${name}.json"
+  done
+  stop_app
+}
+
+run platform dev
+run virtual dev,virtual-threads
+
+printf '\n| scenario | threads | req/s | p50 ms | p99 ms | non-2xx |\n|---|---|---|---|---|---|\n'
+for scenario in "${scenarios[@]}"; do
+  name="${scenario%%|*}"
+  for mode in platform virtual; do
+    jq -r --arg name "$name" --arg mode "$mode" '
+      [ $name, $mode,
+        (.summary.requestsPerSec | floor),
+        (.latencyPercentiles.p50 * 1000 | . * 10 | floor / 10),
+        (.latencyPercentiles.p99 * 1000 | . * 10 | floor / 10),
+        ([.statusCodeDistribution | to_entries[] | select(.key | startswith("2") | not) | .value] | add // 0)
+      ] | "| " + (map(tostring) | join(" | ")) + " |"' "$OUT/${mode}-${name}.json"
+  done
+done
+echo
+echo "Raw oha output, application logs and JFR recordings: $OUT"
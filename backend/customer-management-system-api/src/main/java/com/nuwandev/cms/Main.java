@@ -3,9 +3,25 @@ package com.nuwandev.cms;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import java.util.List;
+
 @SpringBootApplication
 public class Main {
+
+    /**
+     * {@code java -jar app.jar rebalance-shards}: runs the shard rebalancer without starting the web server and
+     * exits when it is done (see {@link com.nuwandev.cms.config.ShardingConfig}).
+     */
+    public static final String REBALANCE_SHARDS = "rebalance-shards";
+
+    /** Activated for {@link #REBALANCE_SHARDS}: no web server, no scheduled jobs, no startup tasks. */
+    public static final String REBALANCE_PROFILE = "rebalance";
+
     public static void main(String[] args) {
-        SpringApplication.run(Main.class);
+        SpringApplication application = new SpringApplication(Main.class);
+        if (List.of(args).contains(REBALANCE_SHARDS)) {
+            application.setAdditionalProfiles(REBALANCE_PROFILE);
+        }
+        application.run(args);
     }
-}
\ No newline at end of file
+}
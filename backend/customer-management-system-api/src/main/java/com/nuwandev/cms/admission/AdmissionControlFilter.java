@@ -0,0 +1,191 @@
+package com.nuwandev.cms.admission;
+
+import com.nuwandev.cms.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the API: a per-client token bucket, then a bulkhead per request class. Requests
+ * over either limit are answered at once, {@code 429} or {@code 503} with {@code Retry-After}, instead of
+ * queueing for a pool connection until they time out, so the requests that are admitted keep their latency.
+ * <p>
+ * The change stream only takes a token: it holds its connection for minutes but no database resources. Exports
+ * hold a database cursor for as long as the client reads, so they have a bulkhead of their own rather than
+ * sharing one with imports and batch calls.
+ * <p>
+ * The client header is only believed from the configured trusted proxies; anyone else could pick a fresh id per
+ * request and never run out of tokens.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/";
+    private static final String CHANGE_STREAM_SUFFIX = "/changes/stream";
+
+    private final Bulkhead reads;
+    private final Bulkhead writes;
+    private final Bulkhead bulk;
+    private final Bulkhead streams;
+    private final ClientRateLimiter clientRateLimiter;
+    private final String clientHeader;
+    private final Set<String> trustedProxies;
+    private final String retryAfterSeconds;
+    private final JsonMapper jsonMapper;
+    private final Counter rateLimited;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControlFilter(AdmissionProperties properties, JsonMapper jsonMapper, MeterRegistry meterRegistry) {
+        this.reads = new Bulkhead("reads", properties.getReads());
+        this.writes = new Bulkhead("writes", properties.getWrites());
+        this.bulk = new Bulkhead("bulk", properties.getBulk());
+        this.streams = new Bulkhead("streams", properties.getStreams());
+        this.clientRateLimiter = properties.getClientRate().isEnabled() ? new ClientRateLimiter(properties.getClientRate()) : null;
+        this.clientHeader = properties.getClientRate().getClientHeader();
+        this.trustedProxies = Set.copyOf(properties.getClientRate().getTrustedProxies());
+        this.retryAfterSeconds = Long.toString(Math.max(1, properties.getRetryAfter().toSeconds()));
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+        this.rateLimited = Counter.builder("cms.admission.rejected")
+                .tag("bulkhead", "none")
+                .tag("reason", "rate-limited")
+                .register(meterRegistry);
+        for (Bulkhead bulkhead : List.of(reads, writes, bulk, streams)) {
+            Gauge.builder("cms.admission.limit", bulkhead, Bulkhead::limit).tag("bulkhead", bulkhead.name()).register(meterRegistry);
+            Gauge.builder("cms.admission.inflight", bulkhead, Bulkhead::inflight).tag("bulkhead", bulkhead.name()).register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PREFIX) || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (clientRateLimiter != null) {
+            long waitNanos = clientRateLimiter.tryAcquire(clientOf(request));
+            if (waitNanos > 0) {
+                rateLimited.increment();
+                long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, Long.toString(seconds), "Request rate limit exceeded, retry later");
+                return;
+            }
+        }
+
+        if (request.getRequestURI().endsWith(CHANGE_STREAM_SUFFIX)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = bulkheadFor(request);
+        int inflight = bulkhead.tryAcquire();
+        if (inflight == 0) {
+            meterRegistry.counter("cms.admission.rejected", "bulkhead", bulkhead.name(), "reason", "overloaded").increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds, "Server is overloaded, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streaming exports keep using the database after this thread returns.
+                request.getAsyncContext().addListener(new ReleaseOnComplete(bulkhead, start, inflight));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                bulkhead.release(System.nanoTime() - start, inflight, response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value());
+            }
+        }
+    }
+
+    private Bulkhead bulkheadFor(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.endsWith("/export")) {
+            return streams;
+        }
+        if (uri.endsWith("/import") || uri.contains("/batch")) {
+            return bulk;
+        }
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? reads : writes;
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!trustedProxies.contains(remoteAddr)) {
+            return remoteAddr;
+        }
+        String client = request.getHeader(clientHeader);
+        return client != null && !client.isBlank() ? client : remoteAddr;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String retryAfter, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), new ErrorResponse(status.getReasonPhrase(), message));
+    }
+
+    private static final class ReleaseOnComplete implements AsyncListener {
+
+        private final Bulkhead bulkhead;
+        private final long start;
+        private final int inflight;
+        private boolean released;
+
+        private ReleaseOnComplete(Bulkhead bulkhead, long start, int inflight) {
+            this.bulkhead = bulkhead;
+            this.start = start;
+            this.inflight = inflight;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        // Timeout and error are followed by complete; release once.
+        private synchronized void release() {
+            if (!released) {
+                released = true;
+                bulkhead.release(System.nanoTime() - start, inflight, false);
+            }
+        }
+    }
+}
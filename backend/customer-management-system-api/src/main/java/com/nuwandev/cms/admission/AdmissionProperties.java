@@ -0,0 +1,76 @@
+package com.nuwandev.cms.admission;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code cms.admission.*}: concurrency limits per request class and per-client rate limits applied before a
+ * request reaches a controller.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("cms.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    /** Sent as {@code Retry-After} with a 503 when a bulkhead is full. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private Limit reads = new Limit(20, 4, 200, true);
+    private Limit writes = new Limit(10, 2, 100, true);
+    /** Imports and batch calls. Their duration follows their size, so the limit is fixed. */
+    private Limit bulk = new Limit(2, 1, 2, false);
+    /**
+     * Exports, which hold a permit for as long as the client reads (up to {@code spring.mvc.async.request-timeout}),
+     * so a couple of slow downloads cannot shut out imports and batch calls.
+     */
+    private Limit streams = new Limit(2, 1, 2, false);
+
+    private ClientRate clientRate = new ClientRate();
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        /** Shrink the limit when latency climbs above the no-load latency and grow it while it does not. */
+        private boolean adaptive;
+        /** Latency may reach this multiple of the no-load latency before the limit shrinks. */
+        private double latencyTolerance = 2.0;
+
+        public Limit() {
+        }
+
+        public Limit(int initialLimit, int minLimit, int maxLimit, boolean adaptive) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.adaptive = adaptive;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class ClientRate {
+        private boolean enabled = true;
+        private double requestsPerSecond = 100;
+        private int burst = 200;
+        /**
+         * Header naming the calling client, e.g. set by the gateway. Only honoured on requests whose remote address
+         * is one of {@link #trustedProxies}; all other requests are keyed by remote address.
+         */
+        private String clientHeader = "X-Client-Id";
+        /** Remote addresses (as the servlet container reports them) of the gateways allowed to set the header. */
+        private List<String> trustedProxies = new ArrayList<>();
+        /** Buckets are dropped after this long without requests, and at most this many are kept. */
+        private Duration idleTimeout = Duration.ofMinutes(5);
+        private long maxClients = 100_000;
+    }
+}
@@ -0,0 +1,49 @@
+package com.nuwandev.cms.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the requests of one class (reads, writes, bulk) in flight at once, so a burst in one class cannot take
+ * every pool connection from the others. A full bulkhead rejects immediately rather than queueing.
+ */
+public final class Bulkhead {
+
+    private final String name;
+    private final ConcurrencyLimit limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    Bulkhead(String name, AdmissionProperties.Limit config) {
+        this.name = name;
+        this.limit = new ConcurrencyLimit(config);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int limit() {
+        return limit.current();
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+
+    /** Returns the number of requests in flight including this one, or 0 when the bulkhead is full. */
+    int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit.current()) {
+                return 0;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    void release(long latencyNanos, int inflightAtStart, boolean overloaded) {
+        inflight.decrementAndGet();
+        limit.onSample(latencyNanos, inflightAtStart, overloaded);
+    }
+}
@@ -0,0 +1,52 @@
+package com.nuwandev.cms.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One token bucket per client, so a single caller cannot use up the bulkheads everyone shares. Buckets live in a
+ * bounded Caffeine cache and are dropped once idle; a returning client starts with a full bucket.
+ */
+final class ClientRateLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final double tokensPerNano;
+    private final int burst;
+
+    ClientRateLimiter(AdmissionProperties.ClientRate config) {
+        this.tokensPerNano = config.getRequestsPerSecond() / TimeUnit.SECONDS.toNanos(1);
+        this.burst = config.getBurst();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(config.getMaxClients())
+                .expireAfterAccess(config.getIdleTimeout())
+                .build();
+    }
+
+    /** Takes a token for {@code client}; returns 0 if one was available, else the nanos until there is one. */
+    long tryAcquire(String client) {
+        return buckets.get(client, key -> new TokenBucket(burst)).tryTake(System.nanoTime(), tokensPerNano, burst);
+    }
+
+    private static final class TokenBucket {
+
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        private TokenBucket(int burst) {
+            this.tokens = burst;
+        }
+
+        // Held for a few arithmetic operations per request of one client, never across I/O.
+        private synchronized long tryTake(long now, double tokensPerNano, int burst) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.nuwandev.cms.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows observed latency, in the spirit of TCP Vegas: while requests finish about as
+ * fast as they do unloaded, adding concurrency adds throughput, so the limit grows; once latency climbs past
+ * {@code latencyTolerance} times the no-load latency, requests are only queueing (for a pool connection, a row
+ * lock, CPU), so the limit shrinks in proportion.
+ * <p>
+ * Samples are summed in {@link LongAdder}s; one caller per {@link #WINDOW_NANOS} window folds them into a new
+ * limit, so the request path never takes a lock.
+ */
+final class ConcurrencyLimit {
+
+    private static final long WINDOW_NANOS = 250_000_000L;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final double SMOOTHING = 0.2;
+    // how quickly the no-load latency follows a lasting increase, e.g. a larger table
+    private static final double NO_LOAD_DRIFT = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final boolean adaptive;
+    private final double latencyTolerance;
+
+    private volatile int limit;
+
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicInteger maxInflight = new AtomicInteger();
+    private final AtomicLong windowEnd = new AtomicLong(System.nanoTime() + WINDOW_NANOS);
+    private double noLoadNanos = Double.NaN;
+    private double smoothedLimit;
+
+    ConcurrencyLimit(AdmissionProperties.Limit config) {
+        this.minLimit = Math.max(1, config.getMinLimit());
+        this.maxLimit = Math.max(minLimit, config.getMaxLimit());
+        this.adaptive = config.isAdaptive();
+        this.latencyTolerance = config.getLatencyTolerance();
+        this.limit = Math.clamp(config.getInitialLimit(), minLimit, maxLimit);
+        this.smoothedLimit = limit;
+    }
+
+    int current() {
+        return limit;
+    }
+
+    /**
+     * @param inflight requests in flight when this one was admitted, itself included
+     * @param overloaded the request failed because a downstream resource was exhausted (pool timeout)
+     */
+    void onSample(long latency, int inflight, boolean overloaded) {
+        if (!adaptive) {
+            return;
+        }
+        samples.increment();
+        latencyNanos.add(latency);
+        if (overloaded) {
+            dropped.increment();
+        }
+        maxInflight.accumulateAndGet(inflight, Math::max);
+
+        long now = System.nanoTime();
+        long end = windowEnd.get();
+        if (now - end >= 0 && samples.sum() >= MIN_WINDOW_SAMPLES && windowEnd.compareAndSet(end, now + WINDOW_NANOS)) {
+            update(samples.sumThenReset(), latencyNanos.sumThenReset(), dropped.sumThenReset(), maxInflight.getAndSet(0));
+        }
+    }
+
+    // Only run by the caller that won the window CAS; synchronized for visibility between windows.
+    private synchronized void update(long count, long totalNanos, long droppedCount, int peakInflight) {
+        if (count == 0) {
+            return;
+        }
+        double average = (double) totalNanos / count;
+        if (Double.isNaN(noLoadNanos) || average < noLoadNanos) {
+            noLoadNanos = average;
+        } else {
+            noLoadNanos += (average - noLoadNanos) * NO_LOAD_DRIFT;
+        }
+
+        double gradient = droppedCount > 0
+                ? 0.5
+                : Math.clamp(latencyTolerance * noLoadNanos / average, 0.5, 1.0);
+        double target = smoothedLimit * gradient + Math.sqrt(smoothedLimit);
+        // Traffic that never came near the limit says nothing about whether a higher one would be safe.
+        if (target > smoothedLimit && peakInflight < smoothedLimit / 2) {
+            return;
+        }
+        smoothedLimit = Math.clamp(smoothedLimit * (1 - SMOOTHING) + target * SMOOTHING, minLimit, maxLimit);
+        limit = (int) smoothedLimit;
+    }
+}
@@ -0,0 +1,130 @@
+package com.nuwandev.cms.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.event.CustomerChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of {@link CustomerResponseDto} by id (Caffeine, W-TinyLFU eviction plus TTL).
+ * <p>
+ * Committed updates are written through rather than evicted: a {@code put} replaces any in-flight load of the
+ * same key, and a load whose entry was replaced is discarded, so a reader that loaded the old row can never
+ * overwrite the new one.
+ * <p>
+ * Loads run on the caller's thread outside Caffeine's map lock (a {@code synchronized} block), so a database
+ * round trip never pins a virtual thread's carrier; concurrent readers of the same key wait on the future.
+ * Hit, miss and eviction counts are published as {@code cache.*} metrics tagged {@code cache=customers}.
+ * <p>
+ * Writes made on other nodes reach this one through {@link CustomerCacheInvalidator}, which bounds how long a
+ * stale entry can be served to {@code cms.cache.customers.invalidation-interval}.
+ */
+@Component
+public class CustomerCache {
+
+    private final AsyncCache<String, CustomerResponseDto> cache;
+    private final CustomerCacheTier secondTier;
+
+    public CustomerCache(
+            CustomerCacheTier secondTier,
+            MeterRegistry meterRegistry,
+            @Value("${cms.cache.customers.max-size:10000}") long maxSize,
+            @Value("${cms.cache.customers.ttl:PT10M}") Duration ttl
+    ) {
+        this.secondTier = secondTier;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "customers");
+    }
+
+    public CustomerResponseDto get(String id, Function<String, CustomerResponseDto> loader) {
+        CompletableFuture<CustomerResponseDto> loading = new CompletableFuture<>();
+        CompletableFuture<CustomerResponseDto> cached = cache.get(id, (key, executor) -> loading);
+        if (cached != loading) {
+            try {
+                return cached.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            CustomerResponseDto customer = secondTier.get(id).orElseGet(() -> {
+                CustomerResponseDto loaded = loader.apply(id);
+                secondTier.putIfNewer(loaded);
+                return loaded;
+            });
+            loading.complete(customer);
+            return customer;
+        } catch (RuntimeException e) {
+            // Caffeine drops failed futures, so the next reader retries the load.
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * The cached customer if it is loaded in this node's cache, without waiting on an in-flight load or
+     * touching the second tier.
+     */
+    public Optional<CustomerResponseDto> getIfPresent(String id) {
+        CompletableFuture<CustomerResponseDto> cached = cache.getIfPresent(id);
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.join());
+    }
+
+    /**
+     * Drops the customer from both tiers unless the cached copy is already at {@code version} or later (this
+     * node's own write-through). An in-flight load may have read the row before that version, so it is dropped.
+     */
+    public void invalidateOlderThan(String id, long version) {
+        CompletableFuture<CustomerResponseDto> cached = cache.getIfPresent(id);
+        if (cached != null && (!cached.isDone() || cached.isCompletedExceptionally() || isOlder(cached.join(), version))) {
+            cache.synchronous().invalidate(id);
+        }
+        secondTier.get(id).filter(entry -> isOlder(entry, version)).ifPresent(entry -> secondTier.evict(id));
+    }
+
+    public void invalidate(String id) {
+        cache.synchronous().invalidate(id);
+        secondTier.evict(id);
+    }
+
+    /**
+     * Clears this node's cache only; the second tier is shared and is left to the per-id invalidations.
+     */
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    @TransactionalEventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.current() == null) {
+            cache.synchronous().invalidate(event.id());
+            secondTier.evict(event.id());
+        } else {
+            cache.put(event.id(), CompletableFuture.completedFuture(event.current()));
+            secondTier.putIfNewer(event.current());
+        }
+    }
+
+    static boolean isOlder(CustomerResponseDto cached, long version) {
+        return cached.getVersion() == null || cached.getVersion() < version;
+    }
+}
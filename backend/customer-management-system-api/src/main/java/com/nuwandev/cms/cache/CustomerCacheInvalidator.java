@@ -0,0 +1,92 @@
+package com.nuwandev.cms.cache;
+
+import com.nuwandev.cms.datasource.ReadYourWrites;
+import com.nuwandev.cms.repository.CustomerRepository;
+import com.nuwandev.cms.repository.CustomerTombstoneRepository;
+import com.nuwandev.cms.shard.Shards;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Evicts customers written by other nodes from this node's {@link CustomerCache}. Each poll reads the ids and
+ * versions of customers updated, and the ids of those deleted, since the previous poll from the change-feed
+ * indexes, so a stale entry is served for at most one {@code cms.cache.customers.invalidation-interval}.
+ * <p>
+ * Every poll reaches back {@code cms.changes.settle-window} before the previous one, because a transaction that
+ * stamped {@code updatedAt} before that poll may have committed after it. Entries already at the written version
+ * (this node's own write-through) are kept. When more customers changed than the cache holds, it is cleared
+ * instead.
+ */
+@Slf4j
+@Component
+public class CustomerCacheInvalidator {
+
+    private final CustomerCache customerCache;
+    private final CustomerRepository customerRepository;
+    private final CustomerTombstoneRepository tombstoneRepository;
+    private final Shards shards;
+    private final Duration settleWindow;
+    private final int maxChanges;
+
+    private LocalDateTime lastPoll = LocalDateTime.now();
+
+    public CustomerCacheInvalidator(
+            CustomerCache customerCache,
+            CustomerRepository customerRepository,
+            CustomerTombstoneRepository tombstoneRepository,
+            Shards shards,
+            @Value("${cms.changes.settle-window:PT5S}") Duration settleWindow,
+            @Value("${cms.cache.customers.max-size:10000}") int maxChanges
+    ) {
+        this.customerCache = customerCache;
+        this.customerRepository = customerRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.shards = shards;
+        this.settleWindow = settleWindow;
+        this.maxChanges = maxChanges;
+    }
+
+    @Scheduled(
+            initialDelayString = "${cms.cache.customers.invalidation-interval:PT1S}",
+            fixedDelayString = "${cms.cache.customers.invalidation-interval:PT1S}"
+    )
+    public synchronized void invalidateChanges() {
+        LocalDateTime polledAt = LocalDateTime.now();
+        LocalDateTime since = lastPoll.minus(settleWindow);
+        // A replica may not have the writes yet.
+        ReadYourWrites.pinToPrimary();
+        try {
+            shards.forEach(shard -> invalidateChangesSince(since));
+        } catch (RuntimeException e) {
+            // lastPoll stays put, so the next poll covers this window again.
+            log.warn("Customer cache invalidation poll failed", e);
+            return;
+        } finally {
+            ReadYourWrites.clear();
+        }
+        lastPoll = polledAt;
+    }
+
+    private void invalidateChangesSince(LocalDateTime since) {
+        List<CustomerRepository.CustomerVersion> updated = customerRepository.findByUpdatedAtGreaterThanEqual(since, Limit.of(maxChanges + 1));
+        List<UUID> deleted = tombstoneRepository.findIdsDeletedSince(since, Limit.of(maxChanges + 1));
+        if (updated.size() + deleted.size() > maxChanges) {
+            customerCache.invalidateAll();
+            return;
+        }
+        for (CustomerRepository.CustomerVersion customer : updated) {
+            customerCache.invalidateOlderThan(customer.getId().toString(), customer.getVersion());
+        }
+        for (UUID id : deleted) {
+            customerCache.invalidate(id.toString());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.nuwandev.cms.cache;
+
+import com.nuwandev.cms.dto.CustomerResponseDto;
+
+import java.util.Optional;
+
+/**
+ * Optional shared cache behind the per-node {@link CustomerCache}, e.g. Redis in a multi-node deployment.
+ * Selected with {@code cms.cache.customers.second-tier}.
+ */
+public interface CustomerCacheTier {
+
+    Optional<CustomerResponseDto> get(String id);
+
+    /**
+     * Stores {@code customer} unless the tier already holds the same or a later version of it, so a read that
+     * loaded the row before a concurrent write cannot replace that write's entry. Must be atomic per id.
+     */
+    void putIfNewer(CustomerResponseDto customer);
+
+    void evict(String id);
+}
@@ -0,0 +1,48 @@
+package com.nuwandev.cms.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Local stand-in for a shared second tier, for running the two-tier path on a single node or in tests. Bounded
+ * by the same {@code cms.cache.customers.max-size} and {@code ttl} as the first tier, as a shared tier would be.
+ */
+@Component
+@ConditionalOnProperty(name = "cms.cache.customers.second-tier", havingValue = "in-memory")
+public class InMemoryCustomerCacheTier implements CustomerCacheTier {
+
+    private final Cache<String, CustomerResponseDto> entries;
+
+    public InMemoryCustomerCacheTier(
+            @Value("${cms.cache.customers.max-size:10000}") long maxSize,
+            @Value("${cms.cache.customers.ttl:PT10M}") Duration ttl
+    ) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Optional<CustomerResponseDto> get(String id) {
+        return Optional.ofNullable(entries.getIfPresent(id));
+    }
+
+    @Override
+    public void putIfNewer(CustomerResponseDto customer) {
+        entries.asMap().merge(customer.getId(), customer, (held, offered) ->
+                offered.getVersion() != null && CustomerCache.isOlder(held, offered.getVersion()) ? offered : held);
+    }
+
+    @Override
+    public void evict(String id) {
+        entries.invalidate(id);
+    }
+}
@@ -0,0 +1,25 @@
+package com.nuwandev.cms.cache;
+
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "cms.cache.customers.second-tier", havingValue = "none", matchIfMissing = true)
+public class NoOpCustomerCacheTier implements CustomerCacheTier {
+
+    @Override
+    public Optional<CustomerResponseDto> get(String id) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void putIfNewer(CustomerResponseDto customer) {
+    }
+
+    @Override
+    public void evict(String id) {
+    }
+}
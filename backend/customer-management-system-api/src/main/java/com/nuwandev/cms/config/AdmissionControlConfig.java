@@ -0,0 +1,34 @@
+package com.nuwandev.cms.config;
+
+import com.nuwandev.cms.admission.AdmissionControlFilter;
+import com.nuwandev.cms.admission.AdmissionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Installs {@link AdmissionControlFilter} unless {@code cms.admission.enabled=false}.
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(name = "cms.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            AdmissionProperties properties,
+            JsonMapper jsonMapper,
+            MeterRegistry meterRegistry
+    ) {
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(properties, jsonMapper, meterRegistry));
+        // After the observation filter, so shed requests still show up in http.server.requests.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
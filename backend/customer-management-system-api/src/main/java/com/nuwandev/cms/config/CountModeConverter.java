@@ -0,0 +1,22 @@
+package com.nuwandev.cms.config;
+
+import com.nuwandev.cms.enums.CountMode;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CountModeConverter implements Converter<String, CountMode> {
+    @Override
+    public CountMode convert(String source) {
+        if (source == null || source.isBlank()) {
+            return CountMode.EXACT;
+        }
+        String normalized = source.trim().toUpperCase();
+        for (CountMode mode : CountMode.values()) {
+            if (mode.name().equals(normalized)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown count mode: " + source);
+    }
+}
@@ -0,0 +1,22 @@
+package com.nuwandev.cms.config;
+
+import com.nuwandev.cms.enums.DataFormat;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DataFormatConverter implements Converter<String, DataFormat> {
+    @Override
+    public DataFormat convert(String source) {
+        if (source == null || source.isBlank()) {
+            return DataFormat.NDJSON;
+        }
+        String normalized = source.trim().toUpperCase();
+        for (DataFormat format : DataFormat.values()) {
+            if (format.name().equals(normalized)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown data format: " + source);
+    }
+}
@@ -0,0 +1,22 @@
+package com.nuwandev.cms.config;
+
+import com.nuwandev.cms.enums.DedupeMode;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DedupeModeConverter implements Converter<String, DedupeMode> {
+    @Override
+    public DedupeMode convert(String source) {
+        if (source == null || source.isBlank()) {
+            return DedupeMode.INCREMENTAL;
+        }
+        String normalized = source.trim().toUpperCase();
+        for (DedupeMode mode : DedupeMode.values()) {
+            if (mode.name().equals(normalized)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown dedupe mode: " + source);
+    }
+}
@@ -0,0 +1,51 @@
+package com.nuwandev.cms.config;
+
+import com.nuwandev.cms.dto.CustomerChangesResponseDto;
+import com.nuwandev.cms.dto.CustomerCreateRequestDto;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.dto.ErrorResponse;
+import com.nuwandev.cms.metrics.SqlExecutionTimingListener;
+import com.nuwandev.cms.metrics.SqlStatementCountingInspector;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Support for the fast-startup profile ({@code mvn -Pfast-startup}, {@code Dockerfile.fast-startup}).
+ * <p>
+ * With {@code spring.main.lazy-initialization=true} only springdoc is deferred: everything else is on the request
+ * path or schedules work when created, so making it lazy would only move the cost onto the first requests (or
+ * never start the scheduled jobs). The hints cover what a native image cannot discover from the code: classes
+ * Hibernate instantiates by name from application.yml, and DTOs serialized outside a controller return type
+ * (exports, the change stream, admission rejections).
+ */
+@Configuration
+@ImportRuntimeHints(FastStartupConfig.NativeHints.class)
+@RegisterReflectionForBinding({
+        CustomerResponseDto.class,
+        CustomerCreateRequestDto.class,
+        CustomerChangesResponseDto.class,
+        ErrorResponse.class
+})
+public class FastStartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerExceptApiDocs() {
+        return (beanName, beanDefinition, beanType) -> beanType == null || !beanType.getName().startsWith("org.springdoc.");
+    }
+
+    static class NativeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection()
+                    .registerType(SqlStatementCountingInspector.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                    .registerType(SqlExecutionTimingListener.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
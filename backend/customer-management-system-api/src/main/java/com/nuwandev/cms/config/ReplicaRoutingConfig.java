@@ -0,0 +1,97 @@
+package com.nuwandev.cms.config;
+
+import com.nuwandev.cms.datasource.ReadReplicaRoutingDataSource;
+import com.nuwandev.cms.datasource.ReadYourWritesFilter;
+import com.nuwandev.cms.datasource.ReplicaPool;
+import com.nuwandev.cms.datasource.ReplicaRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured DataSource with primary + replicas when
+ * {@code cms.datasource.routing.enabled=true}. See {@link ReadReplicaRoutingDataSource} for the routing rules.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(name = "cms.datasource.routing.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaPool replicaPool(ReplicaRoutingProperties properties, DataSourceProperties primary, MeterRegistry meterRegistry) {
+        List<ReplicaPool.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReplicaRoutingProperties.Replica config = properties.getReplicas().get(i);
+            String name = config.getName() != null ? config.getName() : "replica-" + i;
+
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(config.getUrl());
+            dataSource.setUsername(config.getUsername());
+            dataSource.setPassword(config.getPassword());
+            dataSource.setDriverClassName(primary.getDriverClassName());
+            dataSource.setMaximumPoolSize(config.getMaximumPoolSize());
+            // Not a bean, so Boot's Hikari metrics binding does not see it.
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            // Let the app start with a replica down; the health check keeps it out of rotation.
+            dataSource.setInitializationFailTimeout(-1);
+            if (properties.isMigrateReplicas()) {
+                Flyway.configure().dataSource(config.getUrl(), config.getUsername(), config.getPassword()).load().migrate();
+            }
+            dataSource.setReadOnly(true);
+            replicas.add(new ReplicaPool.Replica(name, dataSource));
+        }
+
+        ReplicaPool pool = new ReplicaPool(replicas, properties.getLagQuery(), properties.getMaxLag(), properties.getHealthCheckTimeout());
+        pool.checkHealth();
+        for (ReplicaPool.Replica replica : pool.replicas()) {
+            Gauge.builder("cms.datasource.replica.healthy", replica, r -> r.healthy() ? 1 : 0)
+                    .tag("replica", replica.name())
+                    .register(meterRegistry);
+            Gauge.builder("cms.datasource.replica.lag", replica, ReplicaPool.Replica::lagSeconds)
+                    .tag("replica", replica.name())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool) {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primaryDataSource, replicaPool);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,16 @@
+package com.nuwandev.cms.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} jobs: cache and suggest index syncs, change-feed and stats upkeep, count refreshes,
+ * replica checks and the dedupe cron. {@code cms.scheduling.enabled=false} (set by the {@code rebalance} profile)
+ * leaves them all off.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "cms.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,135 @@
+package com.nuwandev.cms.config;
+
+import com.nuwandev.cms.Main;
+import com.nuwandev.cms.dedupe.CustomerDedupeJob;
+import com.nuwandev.cms.mapper.CustomerMapper;
+import com.nuwandev.cms.service.CustomerExporter;
+import com.nuwandev.cms.service.CustomerService;
+import com.nuwandev.cms.service.CustomerServiceImpl;
+import com.nuwandev.cms.service.ShardedCustomerService;
+import com.nuwandev.cms.shard.ShardDataSources;
+import com.nuwandev.cms.shard.ShardEmailDirectory;
+import com.nuwandev.cms.shard.ShardRebalancer;
+import com.nuwandev.cms.shard.ShardRoutingDataSource;
+import com.nuwandev.cms.shard.ShardSortKeys;
+import com.nuwandev.cms.shard.ShardingProperties;
+import com.nuwandev.cms.shard.Shards;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured DataSource with one pool per shard when {@code cms.sharding.enabled=true},
+ * and the customer service with {@link ShardedCustomerService}. Cannot be combined with replica routing.
+ * <p>
+ * Started with the {@value Main#REBALANCE_SHARDS} argument, the application runs under the
+ * {@value Main#REBALANCE_PROFILE} profile and serves nothing: it rebalances the shards and exits, with a non-zero
+ * status if the rebalance failed.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(name = "cms.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ShardDataSources shardDataSources(
+            ShardingProperties properties,
+            DataSourceProperties primary,
+            MeterRegistry meterRegistry,
+            @Value("${cms.datasource.routing.enabled:false}") boolean replicaRouting
+    ) {
+        if (replicaRouting) {
+            throw new IllegalStateException("cms.sharding and cms.datasource.routing cannot be enabled together");
+        }
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("cms.sharding.enabled is set but cms.sharding.shards is empty");
+        }
+
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard config = properties.getShards().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(config.getName() != null ? config.getName() : "shard-" + i);
+            dataSource.setJdbcUrl(config.getUrl());
+            dataSource.setUsername(config.getUsername());
+            dataSource.setPassword(config.getPassword());
+            dataSource.setDriverClassName(primary.getDriverClassName());
+            dataSource.setMaximumPoolSize(config.getMaximumPoolSize());
+            // Not a bean, so Boot's Hikari metrics binding does not see it.
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            // Boot's Flyway only sees the routing DataSource, which resolves to shard 0.
+            Flyway.configure().dataSource(dataSource).load().migrate();
+            dataSources.add(dataSource);
+        }
+        return new ShardDataSources(dataSources);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shardDataSources.all());
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    @Bean
+    public ShardEmailDirectory shardEmailDirectory(ShardDataSources shardDataSources) {
+        return new ShardEmailDirectory(shardDataSources.get(0));
+    }
+
+    @Bean
+    public ShardSortKeys shardSortKeys(ShardDataSources shardDataSources, Shards shards) {
+        return new ShardSortKeys(shardDataSources, shards);
+    }
+
+    @Bean
+    @Primary
+    public CustomerService shardedCustomerService(
+            CustomerServiceImpl customerServiceImpl,
+            Shards shards,
+            ShardEmailDirectory shardEmailDirectory,
+            ShardSortKeys shardSortKeys,
+            CustomerExporter customerExporter,
+            CustomerMapper customerMapper,
+            CustomerDedupeJob customerDedupeJob,
+            ShardingProperties properties
+    ) {
+        return new ShardedCustomerService(customerServiceImpl, shards, shardEmailDirectory, shardSortKeys, customerExporter, customerMapper,
+                customerDedupeJob, properties.getMaxOffsetRows());
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardDataSources shardDataSources, Shards shards, ShardEmailDirectory shardEmailDirectory, ShardingProperties properties) {
+        return new ShardRebalancer(shardDataSources, shards, shardEmailDirectory, properties.getRebalanceBatchSize());
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public ApplicationRunner shardRebalanceCommand(ShardRebalancer shardRebalancer, ConfigurableApplicationContext context) {
+        return args -> {
+            if (!args.getNonOptionArgs().contains(Main.REBALANCE_SHARDS)) {
+                return;
+            }
+            shardRebalancer.rebalance();
+            // Pool and executor threads would otherwise keep the JVM alive.
+            System.exit(SpringApplication.exit(context));
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.nuwandev.cms.config;
+
+import com.nuwandev.cms.search.CustomerSearchIndexer;
+import com.nuwandev.cms.search.CustomerSuggestIndex;
+import com.nuwandev.cms.stats.CustomerStats;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Work an instance does once it has started and before it reports ready: the search index backfill, the suggest
+ * index load and the first stats count. {@code cms.startup-tasks.enabled=false} (set by the {@code rebalance}
+ * profile) skips them for one-off commands.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cms.startup-tasks.enabled", havingValue = "true", matchIfMissing = true)
+public class StartupTasksConfig {
+
+    @Bean
+    public ApplicationRunner customerStartupTasks(CustomerSearchIndexer searchIndexer, CustomerSuggestIndex suggestIndex, CustomerStats customerStats) {
+        return args -> {
+            searchIndexer.backfill();
+            suggestIndex.start();
+            customerStats.reconcile();
+        };
+    }
+}
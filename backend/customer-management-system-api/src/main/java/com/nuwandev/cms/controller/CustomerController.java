@@ -1,18 +1,43 @@
 package com.nuwandev.cms.controller;
 
+import com.nuwandev.cms.dto.CustomerBatchIdsRequestDto;
+import com.nuwandev.cms.dto.CustomerBatchResponseDto;
+import com.nuwandev.cms.dto.CustomerBatchUpdateRequestDto;
+import com.nuwandev.cms.dto.CustomerChangesResponseDto;
 import com.nuwandev.cms.dto.CustomerCreateRequestDto;
+import com.nuwandev.cms.dto.CustomerCursorPageResponseDto;
+import com.nuwandev.cms.dto.CustomerDedupeRunDto;
+import com.nuwandev.cms.dto.CustomerDuplicatesResponseDto;
+import com.nuwandev.cms.dto.CustomerImportResultDto;
 import com.nuwandev.cms.dto.CustomerPageResponseDto;
 import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.dto.CustomerStatsDto;
+import com.nuwandev.cms.dto.CustomerSuggestionDto;
 import com.nuwandev.cms.dto.CustomerUpdateRequestDto;
+import com.nuwandev.cms.enums.CountMode;
 import com.nuwandev.cms.enums.CustomerSortField;
+import com.nuwandev.cms.enums.DataFormat;
+import com.nuwandev.cms.enums.DedupeMode;
 import com.nuwandev.cms.enums.SortDirection;
+import com.nuwandev.cms.service.CustomerChangeStream;
 import com.nuwandev.cms.service.CustomerService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/customers")
@@ -20,6 +45,7 @@ import org.springframework.web.server.ResponseStatusException;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final CustomerChangeStream customerChangeStream;
 
     @GetMapping
     public ResponseEntity<CustomerPageResponseDto> getCustomers(
@@ -27,7 +53,8 @@ public class CustomerController {
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(defaultValue = "createdAt") CustomerSortField sort,
             @RequestParam(defaultValue = "asc") SortDirection order,
-            @RequestParam(required = false) String search
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "exact") CountMode count
     ) {
         if (page < 0) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page index must be >= 0");
@@ -37,22 +64,196 @@ public class CustomerController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be between 1 and 100");
         }
 
-        return ResponseEntity.ok(customerService.getCustomers(page, size, sort, order, search));
+        CustomerPageResponseDto result = customerService.getCustomers(page, size, sort, order, search, count);
+        return ResponseEntity.ok()
+                .eTag(CustomerETags.ofPage(result.getContent(), result.getPage(), result.getSize(), result.getTotalElements(), result.getTotalPages(), result.getHasNext()))
+                .body(result);
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<CustomerCursorPageResponseDto> getCustomersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "createdAt") CustomerSortField sort,
+            @RequestParam(defaultValue = "asc") SortDirection order,
+            @RequestParam(required = false) String search
+    ) {
+        if (size <= 0 || size > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be between 1 and 100");
+        }
+
+        CustomerCursorPageResponseDto result = customerService.getCustomersByCursor(cursor, size, sort, order, search);
+        return ResponseEntity.ok()
+                .eTag(CustomerETags.ofPage(result.getContent(), result.getNextCursor(), result.getPrevCursor()))
+                .body(result);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @RequestParam(defaultValue = "ndjson") DataFormat format,
+            @RequestParam(defaultValue = "createdAt") CustomerSortField sort,
+            @RequestParam(defaultValue = "asc") SortDirection order,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            customerService.exportCustomers(sort, order, search, format, target);
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+        };
+
+        String filename = "customers." + format.name().toLowerCase();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<CustomerResponseDto>> searchCustomers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") Integer limit
+    ) {
+        if (q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query must not be blank");
+        }
+
+        if (limit <= 0 || limit > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 100");
+        }
+
+        return ResponseEntity.ok(customerService.searchCustomers(q, limit));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<CustomerSuggestionDto>> suggestCustomers(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") Integer limit
+    ) {
+        if (prefix.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Prefix must not be blank");
+        }
+
+        if (limit <= 0 || limit > 50) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 50");
+        }
+
+        return ResponseEntity.ok(customerService.suggestCustomers(prefix, limit));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<CustomerStatsDto> getCustomerStats() {
+        return ResponseEntity.ok(customerService.getCustomerStats());
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<CustomerChangesResponseDto> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") Integer limit
+    ) {
+        if (limit <= 0 || limit > 1000) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 1000");
+        }
+
+        return ResponseEntity.ok(customerService.getChanges(since, limit));
+    }
+
+    @GetMapping("/duplicates")
+    public ResponseEntity<CustomerDuplicatesResponseDto> getDuplicateClusters(
+            @RequestParam(defaultValue = "0") Integer page,
+            @RequestParam(defaultValue = "20") Integer size
+    ) {
+        if (page < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page index must be >= 0");
+        }
+        if (size <= 0 || size > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be between 1 and 100");
+        }
+
+        return ResponseEntity.ok(customerService.getDuplicateClusters(page, size));
+    }
+
+    @PostMapping("/duplicates/runs")
+    public ResponseEntity<CustomerDedupeRunDto> startDuplicateDetection(
+            @RequestParam(defaultValue = "incremental") DedupeMode mode
+    ) {
+        // 202: the run continues in the background; poll /duplicates/runs/latest
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(customerService.startDuplicateDetection(mode));
+    }
+
+    @GetMapping("/duplicates/runs/latest")
+    public ResponseEntity<CustomerDedupeRunDto> getLatestDuplicateDetectionRun() {
+        CustomerDedupeRunDto run = customerService.getLatestDuplicateDetectionRun();
+        if (run == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No duplicate detection run yet");
+        }
+        return ResponseEntity.ok(run);
+    }
+
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        // a reconnecting EventSource resumes from the last token it received
+        return customerChangeStream.subscribe(lastEventId != null ? lastEventId : since);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<CustomerResponseDto> getCustomerById(@PathVariable String id) {
-        return ResponseEntity.ok(customerService.getCustomerById(id));
+        CustomerResponseDto customer = customerService.getCustomerById(id);
+        // no-cache: clients keep the body but revalidate, and an If-None-Match hit is answered with 304
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(CustomerETags.of(customer))
+                .body(customer);
     }
 
     @PostMapping
     public ResponseEntity<CustomerResponseDto> createCustomer(@RequestBody @Valid CustomerCreateRequestDto dto) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(customerService.createCustomer(dto));
+        CustomerResponseDto created = customerService.createCustomer(dto);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(CustomerETags.of(created)).body(created);
+    }
+
+    @PostMapping("/batch/get")
+    public ResponseEntity<CustomerBatchResponseDto> getCustomersByIds(@RequestBody @Valid CustomerBatchIdsRequestDto dto) {
+        return ResponseEntity.ok(customerService.getCustomersByIds(dto.getIds()));
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<CustomerBatchResponseDto> updateCustomers(@RequestBody @Valid CustomerBatchUpdateRequestDto dto) {
+        return ResponseEntity.ok(customerService.updateCustomers(dto.getItems()));
+    }
+
+    @PostMapping("/batch/delete")
+    public ResponseEntity<CustomerBatchResponseDto> deleteCustomers(@RequestBody @Valid CustomerBatchIdsRequestDto dto) {
+        return ResponseEntity.ok(customerService.deleteCustomers(dto.getIds()));
+    }
+
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<CustomerImportResultDto> importCustomers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            HttpServletRequest request
+    ) throws IOException {
+        return ResponseEntity.ok(customerService.importCustomers(request.getInputStream(), DataFormat.fromMediaType(contentType)));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<CustomerResponseDto> updateCustomer(@PathVariable String id, @RequestBody @Valid CustomerUpdateRequestDto dto) {
-        return ResponseEntity.ok(customerService.updateCustomer(id, dto));
+    public ResponseEntity<CustomerResponseDto> updateCustomer(
+            @PathVariable String id,
+            @RequestBody @Valid CustomerUpdateRequestDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        Long expectedVersion = CustomerETags.expectedVersion(ifMatch);
+        CustomerResponseDto updated = expectedVersion == null
+                ? customerService.updateCustomer(id, dto)
+                : customerService.updateCustomerIfVersion(id, dto, expectedVersion);
+        return ResponseEntity.ok().eTag(CustomerETags.of(updated)).body(updated);
     }
 
     @DeleteMapping("/{id}")
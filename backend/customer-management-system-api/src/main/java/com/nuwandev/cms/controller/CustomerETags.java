@@ -0,0 +1,52 @@
+package com.nuwandev.cms.controller;
+
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * ETags derived from the customer version column. A single customer gets a strong ETag (its version, which
+ * changes on every write); a listing gets a weak one over the ids and versions on the page plus the paging
+ * fields, so it changes whenever any of those rows or the page boundaries change.
+ */
+final class CustomerETags {
+
+    private CustomerETags() {
+    }
+
+    static String of(CustomerResponseDto customer) {
+        return "\"" + customer.getVersion() + "\"";
+    }
+
+    static String ofPage(List<CustomerResponseDto> content, Object... paging) {
+        StringBuilder state = new StringBuilder(content.size() * 48);
+        for (CustomerResponseDto customer : content) {
+            state.append(customer.getId()).append(':').append(customer.getVersion()).append(';');
+        }
+        for (Object field : paging) {
+            state.append(field).append('|');
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * The version an {@code If-Match} header asks for, or {@code null} when the header is absent or {@code *}.
+     * Returns -1 for a tag that can never match (weak, or not one of ours), which fails the update with 412.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.nuwandev.cms.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica and everything else to the primary.
+ * <p>
+ * The lookup happens when a connection is first requested, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager
+ * opens its connection before the read-only flag of the transaction is visible. Once a request has
+ * written, its reads stay on the primary until it ends; elsewhere only until the writing transaction completes
+ * (see {@link ReadYourWrites}).
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final ReplicaPool replicaPool;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, ReplicaPool replicaPool) {
+        this.replicaPool = replicaPool;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaPool.replicas().forEach(replica -> targets.put(replica.name(), replica.dataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            ReadYourWrites.pinAfterWrite();
+            return PRIMARY;
+        }
+        if (ReadYourWrites.isPinned()) {
+            return PRIMARY;
+        }
+        ReplicaPool.Replica replica = replicaPool.next();
+        return replica == null ? PRIMARY : replica.name();
+    }
+}
@@ -0,0 +1,58 @@
+package com.nuwandev.cms.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-thread marker that the current unit of work has used the primary for a write, so later reads in
+ * it must not go to a replica that may not have that write yet.
+ * <p>
+ * A request is a unit of work ({@link ReadYourWritesFilter} opens and clears it). On threads with no open unit of
+ * work (scheduled jobs, the dedupe runner, shard fan-out pools) a write pins only until its transaction completes,
+ * so a pooled thread is never left on the primary for later, unrelated work.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> SCOPED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /** Starts a unit of work whose writes keep its later reads on the primary until {@link #clear()}. */
+    public static void beginScope() {
+        SCOPED.set(Boolean.TRUE);
+    }
+
+    /** Sends every read to the primary until {@link #clear()}; callers clear in a {@code finally}. */
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    /** Records that the current transaction writes through the primary. */
+    static void pinAfterWrite() {
+        if (PINNED.get() != null) {
+            return;
+        }
+        if (SCOPED.get() != null) {
+            PINNED.set(Boolean.TRUE);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            PINNED.set(Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    PINNED.remove();
+                }
+            });
+        }
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    public static void clear() {
+        PINNED.remove();
+        SCOPED.remove();
+    }
+}
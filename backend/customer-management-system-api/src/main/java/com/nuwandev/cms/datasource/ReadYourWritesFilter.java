@@ -0,0 +1,31 @@
+package com.nuwandev.cms.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Scopes {@link ReadYourWrites} to one request. Clients that need to read their own write in a later request
+ * can send {@code Cache-Control: no-cache}, which routes that request's reads to the primary.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadYourWrites.beginScope();
+        String cacheControl = request.getHeader("Cache-Control");
+        if (cacheControl != null && cacheControl.contains("no-cache")) {
+            ReadYourWrites.pinToPrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.nuwandev.cms.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Round-robins reads over the replicas that passed their last health check. {@link #next()} returns
+ * {@code null} when none is usable, which sends the read back to the primary.
+ */
+@Slf4j
+public class ReplicaPool {
+
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final int timeoutSeconds;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public ReplicaPool(List<Replica> replicas, String lagQuery, Duration maxLag, Duration timeout) {
+        this.replicas = List.copyOf(replicas);
+        this.lagQuery = (lagQuery == null || lagQuery.isBlank()) ? null : lagQuery;
+        this.maxLag = maxLag;
+        this.timeoutSeconds = (int) Math.max(1, timeout.toSeconds());
+    }
+
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    public Replica next() {
+        int size = replicas.size();
+        int start = Math.floorMod(cursor.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(
+            initialDelayString = "${cms.datasource.routing.health-check-interval:PT5S}",
+            fixedDelayString = "${cms.datasource.routing.health-check-interval:PT5S}"
+    )
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy = probe(replica);
+            if (healthy != replica.healthy) {
+                if (healthy) {
+                    log.info("Replica {} is back in rotation", replica.name);
+                } else {
+                    log.warn("Replica {} taken out of rotation, reads fall back to the other replicas or the primary", replica.name);
+                }
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    /** Invoked as the bean's destroy method: the replica pools are not beans of their own. */
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private boolean probe(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(timeoutSeconds);
+            if (lagQuery == null) {
+                return connection.isValid(timeoutSeconds);
+            }
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                // No row or NULL means the replica is not replicating at all.
+                double lag = rs.next() ? rs.getDouble(1) : Double.NaN;
+                if (rs.wasNull() || Double.isNaN(lag)) {
+                    replica.lagSeconds = Double.NaN;
+                    return false;
+                }
+                replica.lagSeconds = lag;
+                return lag * 1000 <= maxLag.toMillis();
+            }
+        } catch (SQLException e) {
+            log.debug("Health check of replica {} failed", replica.name, e);
+            return false;
+        }
+    }
+
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile double lagSeconds = Double.NaN;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        public boolean healthy() {
+            return healthy;
+        }
+
+        public double lagSeconds() {
+            return lagSeconds;
+        }
+    }
+}
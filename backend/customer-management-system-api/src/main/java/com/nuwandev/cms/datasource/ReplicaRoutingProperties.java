@@ -0,0 +1,47 @@
+package com.nuwandev.cms.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code cms.datasource.routing.*}: read replicas used for read-only transactions. The primary is still
+ * configured through {@code spring.datasource.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("cms.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled;
+    private List<Replica> replicas = new ArrayList<>();
+
+    /** Replicas reporting more lag than this are taken out of rotation until they catch up. */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Query returning the replica's lag in seconds as a single number, e.g. against a pt-heartbeat table.
+     * Without one, only reachability is checked.
+     */
+    private String lagQuery;
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+
+    /** Applies the Flyway migrations to each replica too; only for embedded databases that do not replicate. */
+    private boolean migrateReplicas;
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,349 @@
+package com.nuwandev.cms.dedupe;
+
+import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.domain.CustomerTombstone;
+import com.nuwandev.cms.dto.CustomerDedupeRunDto;
+import com.nuwandev.cms.dto.CustomerDuplicateClusterDto;
+import com.nuwandev.cms.dto.CustomerDuplicatesResponseDto;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.enums.DedupeMode;
+import com.nuwandev.cms.enums.DedupeRunState;
+import com.nuwandev.cms.exception.DedupeRunInProgressException;
+import com.nuwandev.cms.repository.CustomerRepository;
+import com.nuwandev.cms.repository.CustomerTombstoneRepository;
+import com.nuwandev.cms.shard.ShardDataSources;
+import com.nuwandev.cms.shard.Shards;
+import com.nuwandev.cms.specification.CustomerSpecification;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Finds customers that are probably the same person despite differing email casing, phone formatting or name
+ * typos, which the unique email index cannot catch.
+ * <ol>
+ *     <li><b>Profile</b>: every customer is read in id order, 500 at a time, normalized into a
+ *     {@link DedupeProfile} and written to {@code customer_dedupe_profiles} with its blocking keys.</li>
+ *     <li><b>Block</b>: the keys are read back as one stream in key order. Only customers sharing a key are
+ *     compared, which turns n² comparisons into a sum of small blocks.</li>
+ *     <li><b>Score</b>: blocks are gathered into chunks of about {@code cms.dedupe.chunk-rows} customers and
+ *     scored in parallel on a fork/join pool ({@link PairScoring}); matches go to
+ *     {@code customer_duplicate_pairs}.</li>
+ *     <li><b>Cluster</b>: the matches are grouped with a union-find ({@link DuplicateClusters}).</li>
+ * </ol>
+ * Memory holds one batch, one chunk and the matches, never the whole table.
+ * <p>
+ * An incremental run starts from the previous completed run: it drops deleted customers (from the tombstones)
+ * and re-profiles customers changed since, then scores only them against the blocks they fall into. With
+ * {@code cms.sharding}, the tables live on the first shard and the scans cover every shard. Runs are executed one
+ * at a time in the background; run the job on one instance only.
+ */
+@Slf4j
+@Component
+public class CustomerDedupeJob {
+
+    private static final Sort CHANGE_ORDER = Sort.by("updatedAt", "id");
+
+    private final CustomerRepository customerRepository;
+    private final CustomerTombstoneRepository tombstoneRepository;
+    private final Shards shards;
+    private final DedupeStore store;
+    private final double threshold;
+    private final int maxBlockSize;
+    private final int chunkRows;
+    private final int batchSize;
+    private final Duration overlap;
+    private final ForkJoinPool scoringPool;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("dedupe").factory());
+
+    private volatile Run current;
+    private volatile List<DuplicateClusters.Cluster> clusters;
+
+    public CustomerDedupeJob(
+            CustomerRepository customerRepository,
+            CustomerTombstoneRepository tombstoneRepository,
+            Shards shards,
+            DataSource dataSource,
+            ObjectProvider<ShardDataSources> shardDataSources,
+            @Value("${cms.dedupe.threshold:0.9}") double threshold,
+            @Value("${cms.dedupe.max-block-size:500}") int maxBlockSize,
+            @Value("${cms.dedupe.chunk-rows:20000}") int chunkRows,
+            @Value("${cms.dedupe.batch-size:500}") int batchSize,
+            @Value("${cms.dedupe.fetch-size:1000}") int fetchSize,
+            @Value("${cms.dedupe.parallelism:0}") int parallelism,
+            @Value("${cms.dedupe.overlap:PT1M}") Duration overlap
+    ) {
+        this.customerRepository = customerRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.shards = shards;
+        // Sharded, the tables sit on shard 0 beside the email directory, not on whichever shard is being scanned.
+        ShardDataSources sharded = shardDataSources.getIfAvailable();
+        this.store = new DedupeStore(sharded != null ? sharded.get(0) : dataSource, fetchSize);
+        this.threshold = threshold;
+        this.maxBlockSize = maxBlockSize;
+        this.chunkRows = chunkRows;
+        this.batchSize = batchSize;
+        this.overlap = overlap;
+        this.scoringPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Starts a run in the background and returns at once; fails if one is still running. */
+    public synchronized CustomerDedupeRunDto start(DedupeMode mode) {
+        Run running = current;
+        if (running != null && running.state == DedupeRunState.RUNNING) {
+            throw new DedupeRunInProgressException(running.id);
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        Run run = new Run(store.startRun(mode, startedAt), mode, startedAt);
+        current = run;
+        runner.execute(() -> execute(run));
+        return run.toDto();
+    }
+
+    @Scheduled(cron = "${cms.dedupe.cron:-}")
+    public void runScheduled() {
+        try {
+            start(DedupeMode.INCREMENTAL);
+        } catch (DedupeRunInProgressException e) {
+            log.info("Skipping scheduled duplicate detection: {}", e.getMessage());
+        }
+    }
+
+    /** The running or last finished run, or null before the first one. */
+    public CustomerDedupeRunDto latest() {
+        Run run = current;
+        return run != null ? run.toDto() : store.latestRun(false);
+    }
+
+    /**
+     * A page of clusters from the last completed run, largest first. {@code lookup} loads customers by id;
+     * members deleted since the run are left out, and so are clusters that no longer have two members.
+     */
+    public CustomerDuplicatesResponseDto clusters(int page, int size, Function<Collection<UUID>, List<CustomerResponseDto>> lookup) {
+        List<DuplicateClusters.Cluster> all = loadedClusters();
+        int from = (int) Math.min((long) page * size, all.size());
+        int to = Math.min(from + size, all.size());
+        List<DuplicateClusters.Cluster> slice = all.subList(from, to);
+
+        List<UUID> ids = slice.stream().flatMap(cluster -> cluster.customerIds().stream()).toList();
+        Map<String, CustomerResponseDto> customers = new HashMap<>();
+        if (!ids.isEmpty()) {
+            lookup.apply(ids).forEach(customer -> customers.put(customer.getId(), customer));
+        }
+
+        List<CustomerDuplicateClusterDto> result = new ArrayList<>(slice.size());
+        for (DuplicateClusters.Cluster cluster : slice) {
+            List<CustomerResponseDto> members = cluster.customerIds().stream()
+                    .map(id -> customers.get(id.toString()))
+                    .filter(Objects::nonNull)
+                    .toList();
+            if (members.size() > 1) {
+                result.add(new CustomerDuplicateClusterDto(members, cluster.score()));
+            }
+        }
+        return new CustomerDuplicatesResponseDto(result, page, size, all.size(), to < all.size(), latest());
+    }
+
+    @PreDestroy
+    public void close() {
+        runner.shutdownNow();
+        scoringPool.shutdownNow();
+    }
+
+    private void execute(Run run) {
+        try {
+            CustomerDedupeRunDto previous = run.mode == DedupeMode.INCREMENTAL ? store.latestRun(true) : null;
+            if (previous == null) {
+                run.mode = DedupeMode.FULL;
+                full(run);
+            } else {
+                incremental(run, previous.getStartedAt().minus(overlap));
+            }
+            cluster(run);
+            run.state = DedupeRunState.COMPLETED;
+            log.info("Duplicate detection run {} ({}) scanned {} customers, compared {} pairs, {} clusters",
+                    run.id, run.mode, run.scanned.get(), run.compared.get(), run.clusters);
+        } catch (RuntimeException e) {
+            log.warn("Duplicate detection run {} failed", run.id, e);
+            run.error = e.getMessage();
+            run.state = DedupeRunState.FAILED;
+        } finally {
+            run.finishedAt = LocalDateTime.now();
+            try {
+                store.finishRun(run.toDto());
+            } catch (RuntimeException e) {
+                log.warn("Could not record the end of duplicate detection run {}", run.id, e);
+            }
+        }
+    }
+
+    private void full(Run run) {
+        store.clear();
+        shards.forEach(shard -> {
+            UUID lastId = new UUID(0, 0);
+            List<Customer> batch;
+            while (!(batch = customerRepository.findTop500ByIdGreaterThanOrderByIdAsc(lastId)).isEmpty()) {
+                store.saveProfiles(batch.stream()
+                        .map(customer -> DedupeProfile.of(customer.getId(), customer.getFirstName(), customer.getLastName(),
+                                customer.getEmail(), customer.getPhone()))
+                        .toList());
+                run.scanned.addAndGet(batch.size());
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        });
+
+        List<PairScoring.Comparison> chunk = new ArrayList<>();
+        long[] chunkSize = {0};
+        long skipped = store.forEachBlock(maxBlockSize, block -> {
+            chunk.add(new PairScoring.Comparison(block, null));
+            chunkSize[0] += block.size();
+            if (chunkSize[0] >= chunkRows) {
+                score(chunk, run);
+                chunk.clear();
+                chunkSize[0] = 0;
+            }
+        });
+        score(chunk, run);
+        if (skipped > 0) {
+            log.info("Duplicate detection run {} skipped {} blocks larger than {} customers", run.id, skipped, maxBlockSize);
+        }
+    }
+
+    private void incremental(Run run, LocalDateTime since) {
+        // Up to the start of this run; the next run starts from here again, less the overlap.
+        LocalDateTime horizon = run.startedAt;
+        shards.forEach(shard -> {
+            LocalDateTime deletedAt = since;
+            UUID deletedId = new UUID(0, 0);
+            List<CustomerTombstone> tombstones;
+            while (!(tombstones = tombstoneRepository.findAfter(deletedAt, deletedId, horizon, Limit.of(batchSize))).isEmpty()) {
+                store.remove(tombstones.stream().map(CustomerTombstone::getId).toList());
+                CustomerTombstone last = tombstones.get(tombstones.size() - 1);
+                deletedAt = last.getDeletedAt();
+                deletedId = last.getId();
+            }
+
+            LocalDateTime updatedAt = since;
+            UUID updatedId = new UUID(0, 0);
+            List<CustomerResponseDto> changed;
+            while (!(changed = customerRepository.findProjected(
+                    CustomerSpecification.keysetAfter("updatedAt", updatedAt, updatedId, true)
+                            .and(CustomerSpecification.updatedBefore(horizon)),
+                    CHANGE_ORDER, 0, batchSize)).isEmpty()) {
+                rescore(changed, run);
+                CustomerResponseDto last = changed.get(changed.size() - 1);
+                updatedAt = last.getUpdatedAt();
+                updatedId = UUID.fromString(last.getId());
+            }
+        });
+    }
+
+    /** Re-profiles changed customers and scores each against the members of its blocks. */
+    private void rescore(List<CustomerResponseDto> changed, Run run) {
+        List<DedupeProfile> profiles = changed.stream()
+                .map(customer -> DedupeProfile.of(UUID.fromString(customer.getId()), customer.getFirstName(),
+                        customer.getLastName(), customer.getEmail(), customer.getPhone()))
+                .toList();
+        store.remove(profiles.stream().map(DedupeProfile::id).toList());
+        store.saveProfiles(profiles);
+        run.scanned.addAndGet(profiles.size());
+
+        Set<String> keys = new LinkedHashSet<>();
+        profiles.forEach(profile -> keys.addAll(profile.blockKeys()));
+        Map<String, List<DedupeProfile>> blocks = store.blocks(keys, maxBlockSize);
+
+        List<PairScoring.Comparison> comparisons = new ArrayList<>();
+        for (DedupeProfile profile : profiles) {
+            for (String key : profile.blockKeys()) {
+                List<DedupeProfile> block = blocks.get(key);
+                if (block != null && block.size() > 1) {
+                    comparisons.add(new PairScoring.Comparison(List.of(profile), block));
+                }
+            }
+        }
+        score(comparisons, run);
+    }
+
+    private void score(List<PairScoring.Comparison> comparisons, Run run) {
+        PairScoring.Result result = PairScoring.score(scoringPool, comparisons, threshold);
+        store.savePairs(result.matches());
+        run.compared.addAndGet(result.compared());
+    }
+
+    private void cluster(Run run) {
+        DuplicateClusters unionFind = new DuplicateClusters();
+        long[] pairs = {0};
+        store.forEachPair(match -> {
+            unionFind.add(match);
+            pairs[0]++;
+        });
+        List<DuplicateClusters.Cluster> built = unionFind.clusters();
+        run.matched.set(pairs[0]);
+        run.clusters = built.size();
+        clusters = built;
+    }
+
+    private List<DuplicateClusters.Cluster> loadedClusters() {
+        List<DuplicateClusters.Cluster> loaded = clusters;
+        if (loaded != null) {
+            return loaded;
+        }
+        synchronized (this) {
+            if (clusters == null) {
+                // After a restart: rebuild from the stored matches instead of waiting for the next run.
+                DuplicateClusters unionFind = new DuplicateClusters();
+                store.forEachPair(unionFind::add);
+                clusters = unionFind.clusters();
+            }
+            return clusters;
+        }
+    }
+
+    private static final class Run {
+
+        private final long id;
+        private final LocalDateTime startedAt;
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong compared = new AtomicLong();
+        private final AtomicLong matched = new AtomicLong();
+        private volatile DedupeMode mode;
+        private volatile DedupeRunState state = DedupeRunState.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile long clusters;
+        private volatile String error;
+
+        private Run(long id, DedupeMode mode, LocalDateTime startedAt) {
+            this.id = id;
+            this.mode = mode;
+            this.startedAt = startedAt;
+        }
+
+        private CustomerDedupeRunDto toDto() {
+            return new CustomerDedupeRunDto(id, mode, state, startedAt, finishedAt, scanned.get(), compared.get(),
+                    matched.get(), clusters, error);
+        }
+    }
+}
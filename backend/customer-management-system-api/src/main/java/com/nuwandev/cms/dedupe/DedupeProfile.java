@@ -0,0 +1,107 @@
+package com.nuwandev.cms.dedupe;
+
+import org.apache.commons.codec.language.DoubleMetaphone;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * A customer reduced to the fields duplicates are matched on, normalized so formatting differences disappear:
+ * names lower-case without accents or punctuation, the phone as its last ten digits, the email as its local
+ * part without dots or a {@code +tag}.
+ */
+record DedupeProfile(
+        UUID id,
+        String firstName,
+        String lastName,
+        String firstPhonetic,
+        String lastPhonetic,
+        String phone,
+        String emailLocal
+) {
+
+    private static final DoubleMetaphone METAPHONE = new DoubleMetaphone();
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NOT_LETTER = Pattern.compile("[^\\p{L} ]+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final int PHONE_DIGITS = 10;
+    private static final int MIN_PHONE_DIGITS = 7;
+    private static final int MIN_EMAIL_LOCAL = 3;
+
+    static DedupeProfile of(UUID id, String firstName, String lastName, String email, String phone) {
+        String first = normalizeName(firstName);
+        String last = normalizeName(lastName);
+        return new DedupeProfile(id, first, last, phonetic(first), phonetic(last), phoneDigits(phone), emailLocal(email));
+    }
+
+    /**
+     * Customers that share at least one key are compared: the name sounds (in either order, so swapped first and
+     * last names meet), the phone digits, the email local part.
+     */
+    Set<String> blockKeys() {
+        Set<String> keys = new LinkedHashSet<>(3);
+        if (!firstPhonetic.isEmpty() && !lastPhonetic.isEmpty()) {
+            boolean ordered = firstPhonetic.compareTo(lastPhonetic) <= 0;
+            keys.add("n:" + (ordered ? firstPhonetic + ":" + lastPhonetic : lastPhonetic + ":" + firstPhonetic));
+        }
+        if (phone != null) {
+            keys.add("p:" + phone);
+        }
+        if (emailLocal.length() >= MIN_EMAIL_LOCAL) {
+            keys.add("e:" + emailLocal);
+        }
+        return keys;
+    }
+
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        String letters = NOT_LETTER.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return SPACES.matcher(letters).replaceAll(" ").trim();
+    }
+
+    static String phonetic(String normalizedName) {
+        if (normalizedName.isEmpty()) {
+            return "";
+        }
+        String code = METAPHONE.doubleMetaphone(normalizedName.replace(" ", ""));
+        return code != null ? code : "";
+    }
+
+    /** The last ten digits, which drops country and trunk prefixes; null when too short to identify anyone. */
+    static String phoneDigits(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.length() < MIN_PHONE_DIGITS) {
+            return null;
+        }
+        return digits.length() > PHONE_DIGITS ? digits.substring(digits.length() - PHONE_DIGITS) : digits.toString();
+    }
+
+    static String emailLocal(String email) {
+        String local = email.toLowerCase(Locale.ROOT);
+        int at = local.indexOf('@');
+        if (at >= 0) {
+            local = local.substring(0, at);
+        }
+        int tag = local.indexOf('+');
+        if (tag >= 0) {
+            local = local.substring(0, tag);
+        }
+        return local.replace(".", "");
+    }
+}
@@ -0,0 +1,93 @@
+package com.nuwandev.cms.dedupe;
+
+/**
+ * How likely two profiles are the same person, from 0 to 1: the weighted mean of a name, a phone and an email
+ * similarity, over the fields both customers have. Names and email local parts are compared with Jaro-Winkler,
+ * which forgives the transpositions and dropped letters of typos and rewards a shared prefix.
+ */
+final class DedupeScorer {
+
+    private static final double NAME_WEIGHT = 0.5;
+    private static final double PHONE_WEIGHT = 0.25;
+    private static final double EMAIL_WEIGHT = 0.25;
+    private static final int PHONE_SUFFIX = 7;
+
+    private DedupeScorer() {
+    }
+
+    static double score(DedupeProfile a, DedupeProfile b) {
+        double weighted = NAME_WEIGHT * nameSimilarity(a, b) + EMAIL_WEIGHT * jaroWinkler(a.emailLocal(), b.emailLocal());
+        double weights = NAME_WEIGHT + EMAIL_WEIGHT;
+        if (a.phone() != null && b.phone() != null) {
+            weighted += PHONE_WEIGHT * phoneSimilarity(a.phone(), b.phone());
+            weights += PHONE_WEIGHT;
+        }
+        return weighted / weights;
+    }
+
+    private static double nameSimilarity(DedupeProfile a, DedupeProfile b) {
+        double same = (jaroWinkler(a.firstName(), b.firstName()) + jaroWinkler(a.lastName(), b.lastName())) / 2;
+        double swapped = (jaroWinkler(a.firstName(), b.lastName()) + jaroWinkler(a.lastName(), b.firstName())) / 2;
+        return Math.max(same, swapped);
+    }
+
+    private static double phoneSimilarity(String a, String b) {
+        if (a.equals(b)) {
+            return 1;
+        }
+        // Same subscriber number behind a different area code or a dropped prefix.
+        boolean sameSuffix = a.length() >= PHONE_SUFFIX && b.length() >= PHONE_SUFFIX
+                && a.regionMatches(a.length() - PHONE_SUFFIX, b, b.length() - PHONE_SUFFIX, PHONE_SUFFIX);
+        return sameSuffix ? 0.8 : 0;
+    }
+
+    static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return a.isEmpty() ? 0 : 1;
+        }
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] aMatched = new boolean[a.length()];
+        boolean[] bMatched = new boolean[b.length()];
+
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(b.length(), i + window + 1);
+            for (int j = from; j < to; j++) {
+                if (!bMatched[j] && a.charAt(i) == b.charAt(j)) {
+                    aMatched[i] = true;
+                    bMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0;
+        }
+
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (aMatched[i]) {
+                while (!bMatched[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3;
+
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+}
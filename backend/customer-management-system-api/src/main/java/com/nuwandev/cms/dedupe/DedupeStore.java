@@ -0,0 +1,237 @@
+package com.nuwandev.cms.dedupe;
+
+import com.nuwandev.cms.dto.CustomerDedupeRunDto;
+import com.nuwandev.cms.enums.DedupeMode;
+import com.nuwandev.cms.enums.DedupeRunState;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * The job's tables ({@code V6__customer_dedupe.sql}), through plain JDBC: rows are written in batches and read
+ * back as forward-only streams, so neither side holds more than a batch, and none of it touches the persistence
+ * context.
+ */
+class DedupeStore {
+
+    private static final String PROFILE_COLUMNS = "p.customer_id, p.first_name, p.last_name, p.first_phonetic, p.last_phonetic, p.phone, p.email_local";
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate named;
+    private final TransactionTemplate transactionTemplate;
+
+    DedupeStore(DataSource dataSource, int fetchSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(fetchSize);
+        this.named = new NamedParameterJdbcTemplate(jdbc);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    void clear() {
+        jdbc.execute("TRUNCATE TABLE customer_duplicate_pairs");
+        jdbc.execute("TRUNCATE TABLE customer_dedupe_blocks");
+        jdbc.execute("TRUNCATE TABLE customer_dedupe_profiles");
+    }
+
+    void saveProfiles(List<DedupeProfile> profiles) {
+        List<Object[]> profileRows = new ArrayList<>(profiles.size());
+        List<Object[]> blockRows = new ArrayList<>(profiles.size() * 3);
+        for (DedupeProfile profile : profiles) {
+            byte[] id = toBytes(profile.id());
+            profileRows.add(new Object[]{id, profile.firstName(), profile.lastName(), profile.firstPhonetic(),
+                    profile.lastPhonetic(), profile.phone(), profile.emailLocal()});
+            profile.blockKeys().forEach(key -> blockRows.add(new Object[]{key, id}));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbc.batchUpdate("""
+                    INSERT INTO customer_dedupe_profiles
+                        (customer_id, first_name, last_name, first_phonetic, last_phonetic, phone, email_local)
+                    VALUES (?, ?, ?, ?, ?, ?, ?)
+                    """, profileRows);
+            jdbc.batchUpdate("INSERT INTO customer_dedupe_blocks (block_key, customer_id) VALUES (?, ?)", blockRows);
+        });
+    }
+
+    /** Forgets the customers' profiles, blocks and matches, before they are re-profiled or after they were deleted. */
+    void remove(Collection<UUID> customerIds) {
+        if (customerIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource ids = new MapSqlParameterSource("ids", customerIds.stream().map(DedupeStore::toBytes).toList());
+        transactionTemplate.executeWithoutResult(status -> {
+            named.update("DELETE FROM customer_duplicate_pairs WHERE customer_id IN (:ids)", ids);
+            named.update("DELETE FROM customer_duplicate_pairs WHERE duplicate_id IN (:ids)", ids);
+            named.update("DELETE FROM customer_dedupe_blocks WHERE customer_id IN (:ids)", ids);
+            named.update("DELETE FROM customer_dedupe_profiles WHERE customer_id IN (:ids)", ids);
+        });
+    }
+
+    /**
+     * Streams every block of two to {@code maxBlockSize} customers, in block key order. Larger blocks are
+     * skipped (a key shared that widely, like a placeholder phone number, tells nothing); their number is
+     * returned.
+     */
+    long forEachBlock(int maxBlockSize, Consumer<List<DedupeProfile>> consumer) {
+        List<DedupeProfile> block = new ArrayList<>();
+        String[] currentKey = {null};
+        long[] skipped = {0};
+        boolean[] oversized = {false};
+        jdbc.query("SELECT b.block_key, " + PROFILE_COLUMNS + """
+                 FROM customer_dedupe_blocks b
+                JOIN customer_dedupe_profiles p ON p.customer_id = b.customer_id
+                ORDER BY b.block_key
+                """, rs -> {
+            String key = rs.getString(1);
+            if (!key.equals(currentKey[0])) {
+                emit(block, oversized[0], consumer);
+                block.clear();
+                currentKey[0] = key;
+                oversized[0] = false;
+            }
+            if (oversized[0]) {
+                return;
+            }
+            block.add(profile(rs, 2));
+            if (block.size() > maxBlockSize) {
+                block.clear();
+                oversized[0] = true;
+                skipped[0]++;
+            }
+        });
+        emit(block, oversized[0], consumer);
+        return skipped[0];
+    }
+
+    /** Members of each of {@code keys} whose block is no larger than {@code maxBlockSize}. */
+    Map<String, List<DedupeProfile>> blocks(Collection<String> keys, int maxBlockSize) {
+        Map<String, List<DedupeProfile>> blocks = new HashMap<>();
+        if (keys.isEmpty()) {
+            return blocks;
+        }
+        List<String> usable = named.queryForList("""
+                SELECT block_key FROM customer_dedupe_blocks
+                WHERE block_key IN (:keys)
+                GROUP BY block_key
+                HAVING COUNT(*) <= :max
+                """, new MapSqlParameterSource("keys", keys).addValue("max", maxBlockSize), String.class);
+        if (usable.isEmpty()) {
+            return blocks;
+        }
+        named.query("SELECT b.block_key, " + PROFILE_COLUMNS + """
+                 FROM customer_dedupe_blocks b
+                JOIN customer_dedupe_profiles p ON p.customer_id = b.customer_id
+                WHERE b.block_key IN (:keys)
+                """, new MapSqlParameterSource("keys", usable), rs -> {
+            blocks.computeIfAbsent(rs.getString(1), key -> new ArrayList<>()).add(profile(rs, 2));
+        });
+        return blocks;
+    }
+
+    /** Saves matches; a pair already found through another block keeps its higher score. */
+    void savePairs(List<PairScoring.Match> matches) {
+        if (matches.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(matches.size());
+        matches.forEach(match -> rows.add(new Object[]{toBytes(match.customerId()), toBytes(match.duplicateId()), match.score()}));
+        jdbc.batchUpdate("""
+                INSERT INTO customer_duplicate_pairs (customer_id, duplicate_id, score) VALUES (?, ?, ?)
+                ON DUPLICATE KEY UPDATE score = GREATEST(score, VALUES(score))
+                """, rows);
+    }
+
+    void forEachPair(Consumer<PairScoring.Match> consumer) {
+        jdbc.query("SELECT customer_id, duplicate_id, score FROM customer_duplicate_pairs", rs -> {
+            consumer.accept(new PairScoring.Match(fromBytes(rs.getBytes(1)), fromBytes(rs.getBytes(2)), rs.getDouble(3)));
+        });
+    }
+
+    long startRun(DedupeMode mode, LocalDateTime startedAt) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO customer_dedupe_runs (mode, state, started_at) VALUES (?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            statement.setString(1, mode.name());
+            statement.setString(2, DedupeRunState.RUNNING.name());
+            statement.setTimestamp(3, Timestamp.valueOf(startedAt));
+            return statement;
+        }, keys);
+        return keys.getKey().longValue();
+    }
+
+    void finishRun(CustomerDedupeRunDto run) {
+        jdbc.update("""
+                        UPDATE customer_dedupe_runs
+                        SET mode = ?, state = ?, finished_at = ?, scanned = ?, compared = ?, matched = ?, clusters = ?, error = ?
+                        WHERE id = ?
+                        """,
+                run.getMode().name(), run.getState().name(), Timestamp.valueOf(run.getFinishedAt()), run.getScanned(), run.getCompared(),
+                run.getMatched(), run.getClusters(), run.getError(), run.getId());
+    }
+
+    CustomerDedupeRunDto latestRun(boolean completedOnly) {
+        String where = completedOnly ? " WHERE state = '" + DedupeRunState.COMPLETED.name() + "'" : "";
+        List<CustomerDedupeRunDto> runs = jdbc.query(
+                "SELECT id, mode, state, started_at, finished_at, scanned, compared, matched, clusters, error FROM customer_dedupe_runs"
+                        + where + " ORDER BY id DESC LIMIT 1",
+                (rs, rowNum) -> new CustomerDedupeRunDto(
+                        rs.getLong("id"),
+                        DedupeMode.valueOf(rs.getString("mode")),
+                        DedupeRunState.valueOf(rs.getString("state")),
+                        rs.getTimestamp("started_at").toLocalDateTime(),
+                        rs.getTimestamp("finished_at") != null ? rs.getTimestamp("finished_at").toLocalDateTime() : null,
+                        rs.getLong("scanned"),
+                        rs.getLong("compared"),
+                        rs.getLong("matched"),
+                        rs.getLong("clusters"),
+                        rs.getString("error")));
+        return runs.isEmpty() ? null : runs.get(0);
+    }
+
+    private static void emit(List<DedupeProfile> block, boolean oversized, Consumer<List<DedupeProfile>> consumer) {
+        if (!oversized && block.size() > 1) {
+            consumer.accept(List.copyOf(block));
+        }
+    }
+
+    private static DedupeProfile profile(ResultSet rs, int from) throws SQLException {
+        return new DedupeProfile(
+                fromBytes(rs.getBytes(from)),
+                rs.getString(from + 1),
+                rs.getString(from + 2),
+                rs.getString(from + 3),
+                rs.getString(from + 4),
+                rs.getString(from + 5),
+                rs.getString(from + 6));
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,76 @@
+package com.nuwandev.cms.dedupe;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Groups matched pairs into clusters with a union-find (path halving, union by size): if A matches B and B
+ * matches C, all three are one cluster even when A and C were never compared or scored too low.
+ * Only matched customers are held, not the whole table.
+ */
+final class DuplicateClusters {
+
+    private final Map<UUID, Integer> index = new HashMap<>();
+    private final List<UUID> ids = new ArrayList<>();
+    private final List<Integer> parent = new ArrayList<>();
+    private final List<Integer> size = new ArrayList<>();
+    private final Map<Integer, Double> bestScore = new HashMap<>();
+
+    void add(PairScoring.Match match) {
+        int a = find(indexOf(match.customerId()));
+        int b = find(indexOf(match.duplicateId()));
+        double score = Math.max(match.score(), Math.max(bestScore.getOrDefault(a, 0.0), bestScore.getOrDefault(b, 0.0)));
+        if (a != b) {
+            if (size.get(a) < size.get(b)) {
+                int swap = a;
+                a = b;
+                b = swap;
+            }
+            parent.set(b, a);
+            size.set(a, size.get(a) + size.get(b));
+            bestScore.remove(b);
+        }
+        bestScore.put(a, score);
+    }
+
+    /** Largest clusters first, then by best score; members in id order. */
+    List<Cluster> clusters() {
+        Map<Integer, List<UUID>> members = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            members.computeIfAbsent(find(i), root -> new ArrayList<>()).add(ids.get(i));
+        }
+        List<Cluster> clusters = new ArrayList<>(members.size());
+        members.forEach((root, customers) -> {
+            customers.sort(PairScoring::compareIds);
+            clusters.add(new Cluster(List.copyOf(customers), bestScore.get(root)));
+        });
+        clusters.sort(Comparator.comparingInt((Cluster cluster) -> cluster.customerIds().size()).reversed()
+                .thenComparing(Comparator.comparingDouble(Cluster::score).reversed())
+                .thenComparing((x, y) -> PairScoring.compareIds(x.customerIds().get(0), y.customerIds().get(0))));
+        return clusters;
+    }
+
+    private int indexOf(UUID id) {
+        return index.computeIfAbsent(id, key -> {
+            ids.add(key);
+            parent.add(ids.size() - 1);
+            size.add(1);
+            return ids.size() - 1;
+        });
+    }
+
+    private int find(int i) {
+        while (parent.get(i) != i) {
+            parent.set(i, parent.get(parent.get(i)));
+            i = parent.get(i);
+        }
+        return i;
+    }
+
+    record Cluster(List<UUID> customerIds, double score) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.nuwandev.cms.dedupe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Scores candidate pairs on a fork/join pool. The comparisons are split in halves until a part holds at most
+ * {@link #LEAF_PAIRS} pairs, so one huge block and thousands of small ones both spread evenly over the workers,
+ * and idle workers steal the remaining halves.
+ */
+final class PairScoring {
+
+    private static final long LEAF_PAIRS = 20_000;
+
+    private PairScoring() {
+    }
+
+    static Result score(ForkJoinPool pool, List<Comparison> comparisons, double threshold) {
+        if (comparisons.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+        return pool.invoke(new Task(comparisons, 0, comparisons.size(), threshold));
+    }
+
+    /**
+     * Every pair inside {@code left} when {@code right} is null (a block in a full run), otherwise every pair
+     * across the two (changed customers against their block in an incremental run).
+     */
+    record Comparison(List<DedupeProfile> left, List<DedupeProfile> right) {
+
+        long pairs() {
+            long n = left.size();
+            return right == null ? n * (n - 1) / 2 : n * right.size();
+        }
+    }
+
+    /** A match, stored once per pair with the smaller id (in stored byte order) first. */
+    record Match(UUID customerId, UUID duplicateId, double score) {
+
+        static Match of(UUID a, UUID b, double score) {
+            return compareIds(a, b) < 0 ? new Match(a, b, score) : new Match(b, a, score);
+        }
+    }
+
+    record Result(List<Match> matches, long compared) {
+    }
+
+    static int compareIds(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private static final class Task extends RecursiveTask<Result> {
+
+        private final List<Comparison> comparisons;
+        private final int from;
+        private final int to;
+        private final double threshold;
+
+        private Task(List<Comparison> comparisons, int from, int to, double threshold) {
+            this.comparisons = comparisons;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Result compute() {
+            long pairs = 0;
+            for (int i = from; i < to; i++) {
+                pairs += comparisons.get(i).pairs();
+            }
+            if (to - from == 1 || pairs <= LEAF_PAIRS) {
+                return scoreRange();
+            }
+
+            int middle = (from + to) >>> 1;
+            Task right = new Task(comparisons, middle, to, threshold);
+            right.fork();
+            Result left = new Task(comparisons, from, middle, threshold).compute();
+            Result other = right.join();
+
+            List<Match> matches = new ArrayList<>(left.matches().size() + other.matches().size());
+            matches.addAll(left.matches());
+            matches.addAll(other.matches());
+            return new Result(matches, left.compared() + other.compared());
+        }
+
+        private Result scoreRange() {
+            List<Match> matches = new ArrayList<>();
+            long compared = 0;
+            for (int c = from; c < to; c++) {
+                Comparison comparison = comparisons.get(c);
+                List<DedupeProfile> left = comparison.left();
+                if (comparison.right() == null) {
+                    for (int i = 0; i < left.size(); i++) {
+                        for (int j = i + 1; j < left.size(); j++) {
+                            compared++;
+                            match(left.get(i), left.get(j), matches);
+                        }
+                    }
+                } else {
+                    for (DedupeProfile a : left) {
+                        for (DedupeProfile b : comparison.right()) {
+                            if (!a.id().equals(b.id())) {
+                                compared++;
+                                match(a, b, matches);
+                            }
+                        }
+                    }
+                }
+            }
+            return new Result(matches, compared);
+        }
+
+        private void match(DedupeProfile a, DedupeProfile b, List<Match> matches) {
+            double score = DedupeScorer.score(a, b);
+            if (score >= threshold) {
+                matches.add(Match.of(a.id(), b.id(), score));
+            }
+        }
+    }
+}
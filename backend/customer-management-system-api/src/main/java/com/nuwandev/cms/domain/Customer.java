@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.UUID;
 
 @Entity
@@ -19,8 +20,8 @@ import java.util.UUID;
 public class Customer {
 
     @Id
-    @Column(length = 36, nullable = false, updatable = false)
-    private String id;
+    @Column(nullable = false, updatable = false)
+    private UUID id;
 
     @Column(nullable = false)
     private String firstName;
@@ -42,9 +43,16 @@ public class Customer {
 
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
-        this.id = UUID.randomUUID().toString();
+        if (this.id == null) {
+            this.id = UuidV7.next();
+        }
+        this.email = normalizeEmail(this.email);
         this.createdAt = LocalDateTime.now();
         this.updatedAt = this.createdAt;
         this.status = Status.ACTIVE;
@@ -54,4 +62,12 @@ public class Customer {
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
     }
+
+    /**
+     * Emails are stored and looked up in lower case, so uniqueness checks do not depend on the column collation
+     * (case-insensitive on MySQL, case-sensitive on H2).
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
 }
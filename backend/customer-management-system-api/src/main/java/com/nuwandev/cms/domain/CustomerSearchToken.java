@@ -0,0 +1,46 @@
+package com.nuwandev.cms.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * One posting in the customer search index: a trigram that occurs in one of a customer's searchable
+ * fields. The primary key (token, customer_id) doubles as the lookup index.
+ */
+@Entity
+@Table(name = "customer_search_tokens", indexes = @Index(name = "idx_search_tokens_customer", columnList = "customerId"))
+@IdClass(CustomerSearchToken.Key.class)
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSearchToken {
+
+    @Id
+    @Column(length = 16, nullable = false)
+    private String token;
+
+    @Id
+    @Column(nullable = false)
+    private UUID customerId;
+
+    @Column(nullable = false)
+    private int weight;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String token;
+        private UUID customerId;
+    }
+}
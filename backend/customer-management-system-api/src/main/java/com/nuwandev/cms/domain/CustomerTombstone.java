@@ -0,0 +1,39 @@
+package com.nuwandev.cms.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Marker left behind by a hard delete so the change feed can report it. Purged after the feed's retention.
+ */
+@Entity
+@Table(name = "customer_tombstones", indexes = @Index(name = "idx_customer_tombstones_deleted_at_id", columnList = "deletedAt, id"))
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerTombstone implements Persistable<UUID> {
+
+    @Id
+    @Column(nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    /**
+     * Tombstones are only ever inserted, so save() always persists instead of merging (which would select the
+     * assigned id first).
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
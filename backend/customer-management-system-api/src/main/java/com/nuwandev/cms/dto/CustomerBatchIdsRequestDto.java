@@ -0,0 +1,19 @@
+package com.nuwandev.cms.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerBatchIdsRequestDto {
+
+    @NotEmpty(message = "At least one id is required")
+    @Size(max = CustomerBatchUpdateRequestDto.MAX_ITEMS, message = "At most " + CustomerBatchUpdateRequestDto.MAX_ITEMS + " ids per batch")
+    private List<String> ids;
+}
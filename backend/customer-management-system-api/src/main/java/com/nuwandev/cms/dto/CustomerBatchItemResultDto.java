@@ -0,0 +1,19 @@
+package com.nuwandev.cms.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomerBatchItemResultDto {
+    private String id;
+    private Integer status;
+    private CustomerResponseDto customer;
+    private String error;
+}
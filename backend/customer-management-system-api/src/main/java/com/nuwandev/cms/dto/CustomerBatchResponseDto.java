@@ -0,0 +1,18 @@
+package com.nuwandev.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerBatchResponseDto {
+    private List<CustomerBatchItemResultDto> results;
+    private Integer succeeded;
+    private Integer failed;
+}
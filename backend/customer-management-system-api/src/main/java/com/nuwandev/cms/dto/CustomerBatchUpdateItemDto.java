@@ -0,0 +1,21 @@
+package com.nuwandev.cms.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerBatchUpdateItemDto {
+
+    @NotBlank(message = "Id is required")
+    private String id;
+
+    @Valid
+    @NotNull(message = "Customer is required")
+    private CustomerUpdateRequestDto customer;
+}
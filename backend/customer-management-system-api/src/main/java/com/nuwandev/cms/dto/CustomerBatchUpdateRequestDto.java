@@ -0,0 +1,23 @@
+package com.nuwandev.cms.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerBatchUpdateRequestDto {
+
+    public static final int MAX_ITEMS = 500;
+
+    @Valid
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = MAX_ITEMS, message = "At most " + MAX_ITEMS + " items per batch")
+    private List<CustomerBatchUpdateItemDto> items;
+}
@@ -0,0 +1,21 @@
+package com.nuwandev.cms.dto;
+
+import com.nuwandev.cms.enums.CustomerChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerChangeDto {
+    private String id;
+    private CustomerChangeType type;
+    private LocalDateTime changedAt;
+    // current state for CREATED/UPDATED, null for DELETED
+    private CustomerResponseDto customer;
+}
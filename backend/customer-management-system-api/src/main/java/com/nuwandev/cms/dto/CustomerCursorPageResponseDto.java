@@ -0,0 +1,21 @@
+package com.nuwandev.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerCursorPageResponseDto {
+    List<CustomerResponseDto> content;
+    Integer size;
+    String nextCursor;
+    String prevCursor;
+    Boolean hasNext;
+    Boolean hasPrevious;
+}
@@ -0,0 +1,17 @@
+package com.nuwandev.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerDailyCountDto {
+    private LocalDate day;
+    private Long count;
+}
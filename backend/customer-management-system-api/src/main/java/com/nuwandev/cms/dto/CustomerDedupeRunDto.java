@@ -0,0 +1,30 @@
+package com.nuwandev.cms.dto;
+
+import com.nuwandev.cms.enums.DedupeMode;
+import com.nuwandev.cms.enums.DedupeRunState;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerDedupeRunDto {
+    private Long id;
+    private DedupeMode mode;
+    private DedupeRunState state;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // customers (re)profiled: all of them for a full run, the changed ones for an incremental run
+    private Long scanned;
+    // candidate pairs scored
+    private Long compared;
+    // pairs at or above the match threshold
+    private Long matched;
+    private Long clusters;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package com.nuwandev.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerDuplicateClusterDto {
+    private List<CustomerResponseDto> customers;
+    // best pair score inside the cluster, between the match threshold and 1
+    private Double score;
+}
@@ -0,0 +1,22 @@
+package com.nuwandev.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerDuplicatesResponseDto {
+    private List<CustomerDuplicateClusterDto> clusters;
+    private Integer page;
+    private Integer size;
+    private Integer totalClusters;
+    private Boolean hasNext;
+    // the run these clusters come from; null before the first run
+    private CustomerDedupeRunDto run;
+}
@@ -0,0 +1,22 @@
+package com.nuwandev.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerImportResultDto {
+    private Long totalRows;
+    private Long imported;
+    private Long failed;
+    private Long durationMs;
+    private Double rowsPerSecond;
+    private List<CustomerImportErrorDto> errors;
+    private Boolean errorsTruncated;
+}
@@ -19,4 +19,5 @@ public class CustomerPageResponseDto {
     Integer totalPages;
     Boolean isFirst;
     Boolean isLast;
+    Boolean hasNext;
 }
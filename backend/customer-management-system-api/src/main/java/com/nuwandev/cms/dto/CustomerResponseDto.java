@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Getter
 @Setter
@@ -21,4 +22,12 @@ public class CustomerResponseDto {
     private Status status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
+
+    /**
+     * Constructor expression target for projection queries, which read the id in its stored UUID form.
+     */
+    public CustomerResponseDto(UUID id, String firstName, String lastName, String email, String phone, Status status, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id.toString(), firstName, lastName, email, phone, status, createdAt, updatedAt, version);
+    }
 }
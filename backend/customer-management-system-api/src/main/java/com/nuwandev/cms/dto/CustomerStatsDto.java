@@ -0,0 +1,24 @@
+package com.nuwandev.cms.dto;
+
+import com.nuwandev.cms.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerStatsDto {
+    private long total;
+    private Map<Status, Long> byStatus;
+    // oldest day first, days without signups included as 0
+    private List<CustomerDailyCountDto> signupsPerDay;
+    // when the counters were last checked against the database
+    private LocalDateTime reconciledAt;
+}
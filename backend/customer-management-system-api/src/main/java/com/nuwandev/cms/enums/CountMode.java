@@ -0,0 +1,5 @@
+package com.nuwandev.cms.enums;
+
+public enum CountMode {
+    EXACT, ESTIMATE, NONE
+}
@@ -0,0 +1,3 @@
+package com.nuwandev.cms.enums;
+
+public enum CustomerChangeType {CREATED, UPDATED, DELETED}
@@ -0,0 +1,26 @@
+package com.nuwandev.cms.enums;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+@Getter
+public enum DataFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(MediaType.parseMediaType("text/csv"));
+
+    private final MediaType mediaType;
+
+    DataFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static DataFormat fromMediaType(MediaType mediaType) {
+        for (DataFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(mediaType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported data format: " + mediaType);
+    }
+}
@@ -0,0 +1,24 @@
+package com.nuwandev.cms.event;
+
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.enums.CustomerChangeType;
+
+/**
+ * Published by the service layer for every customer write. {@code previous} is null for creates and
+ * {@code current} is null for deletes. Listeners that mirror customer state in memory should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ */
+public record CustomerChangedEvent(CustomerChangeType type, String id, CustomerResponseDto previous, CustomerResponseDto current) {
+
+    public static CustomerChangedEvent created(CustomerResponseDto current) {
+        return new CustomerChangedEvent(CustomerChangeType.CREATED, current.getId(), null, current);
+    }
+
+    public static CustomerChangedEvent updated(CustomerResponseDto previous, CustomerResponseDto current) {
+        return new CustomerChangedEvent(CustomerChangeType.UPDATED, current.getId(), previous, current);
+    }
+
+    public static CustomerChangedEvent deleted(CustomerResponseDto previous) {
+        return new CustomerChangedEvent(CustomerChangeType.DELETED, previous.getId(), previous, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.nuwandev.cms.exception;
+
+public class ChangeTokenExpiredException extends RuntimeException {
+    public ChangeTokenExpiredException() {
+        super("Change token is older than the change feed retention; resync from a full listing");
+    }
+}
@@ -0,0 +1,7 @@
+package com.nuwandev.cms.exception;
+
+public class CustomerVersionMismatchException extends RuntimeException {
+    public CustomerVersionMismatchException(String id) {
+        super("Customer with id " + id + " has been modified since it was read");
+    }
+}
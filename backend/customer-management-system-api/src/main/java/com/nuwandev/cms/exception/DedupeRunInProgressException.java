@@ -0,0 +1,7 @@
+package com.nuwandev.cms.exception;
+
+public class DedupeRunInProgressException extends RuntimeException {
+    public DedupeRunInProgressException(long runId) {
+        super("Duplicate detection run " + runId + " is still in progress");
+    }
+}
@@ -0,0 +1,7 @@
+package com.nuwandev.cms.exception;
+
+public class PageTooDeepException extends RuntimeException {
+    public PageTooDeepException(int maxOffsetRows) {
+        super("Offset pages beyond the first " + maxOffsetRows + " rows are not available; use cursor pagination");
+    }
+}
@@ -0,0 +1,137 @@
+package com.nuwandev.cms.mapper;
+
+import com.nuwandev.cms.dto.CustomerCreateRequestDto;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.enums.Status;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV (RFC 4180 quoting) for customer import and export. A quoted field may contain line breaks, so a record can
+ * span several lines.
+ */
+public final class CustomerCsvMapper {
+
+    private CustomerCsvMapper() {
+    }
+
+    public static final String HEADER = "id,firstName,lastName,email,phone,status,createdAt,updatedAt";
+
+    /**
+     * Maps header names (case-insensitive) to column positions.
+     */
+    public static Map<String, Integer> parseHeader(String line) {
+        List<String> names = parseLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+
+    public static CustomerCreateRequestDto toCreateRequest(String line, Map<String, Integer> columns) {
+        List<String> values = parseLine(line);
+        String status = column(values, columns, "status");
+        return new CustomerCreateRequestDto(
+                column(values, columns, "firstname"),
+                column(values, columns, "lastname"),
+                column(values, columns, "email"),
+                column(values, columns, "phone"),
+                status == null ? null : Status.valueOf(status.trim().toUpperCase(Locale.ROOT))
+        );
+    }
+
+    public static String toCsvLine(CustomerResponseDto customer) {
+        StringBuilder line = new StringBuilder(128);
+        appendValue(line, customer.getId()).append(',');
+        appendValue(line, customer.getFirstName()).append(',');
+        appendValue(line, customer.getLastName()).append(',');
+        appendValue(line, customer.getEmail()).append(',');
+        appendValue(line, customer.getPhone()).append(',');
+        appendValue(line, customer.getStatus()).append(',');
+        appendValue(line, customer.getCreatedAt()).append(',');
+        appendValue(line, customer.getUpdatedAt());
+        return line.toString();
+    }
+
+    /**
+     * Reads the next record up to an unquoted line break (LF or CRLF, not included), or null at the end of the
+     * input. Line breaks inside quoted fields are kept as they are.
+     */
+    public static String readRecord(Reader reader) throws IOException {
+        StringBuilder record = new StringBuilder(128);
+        boolean quoted = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '"') {
+                // An escaped quote ("") toggles twice.
+                quoted = !quoted;
+            } else if (c == '\n' && !quoted) {
+                int end = record.length();
+                if (end > 0 && record.charAt(end - 1) == '\r') {
+                    record.setLength(end - 1);
+                }
+                return record.toString();
+            }
+            record.append((char) c);
+        }
+        return record.isEmpty() ? null : record.toString();
+    }
+
+    public static List<String> parseLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static StringBuilder appendValue(StringBuilder line, Object value) {
+        if (value == null) {
+            return line;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return line.append(text);
+        }
+        return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size() || values.get(index).isEmpty()) {
+            return null;
+        }
+        return values.get(index);
+    }
+}
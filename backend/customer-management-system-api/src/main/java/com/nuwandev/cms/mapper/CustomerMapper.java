@@ -15,4 +15,6 @@ public interface CustomerMapper {
     List<CustomerResponseDto> toDtoList(List<Customer> customers);
 
     Customer toEntity(CustomerCreateRequestDto dto);
+
+    Customer toEntity(CustomerResponseDto dto);
 }
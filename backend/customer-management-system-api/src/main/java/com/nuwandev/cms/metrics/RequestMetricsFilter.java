@@ -0,0 +1,96 @@
+package com.nuwandev.cms.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the number of SQL statements each request prepared as {@code cms.http.server.requests.sql}, tagged like
+ * {@code http.server.requests}, and logs statements slower than {@code cms.metrics.slow-query-threshold} together
+ * with the listing parameters that produced them. The parameters are also in the MDC for the whole request.
+ */
+@Slf4j
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final int MAX_LOGGED_SEARCH_LENGTH = 64;
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+
+    public RequestMetricsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${cms.metrics.slow-query-threshold:PT0.2S}") Duration slowThreshold
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementContext context = SqlStatementContext.begin(slowThresholdNanos);
+        putMdc("sort", request.getParameter("sort"));
+        putMdc("order", request.getParameter("order"));
+        putMdc("search", truncate(request.getParameter("search") != null ? request.getParameter("search") : request.getParameter("q")));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatementContext.end();
+            record(request, response, context);
+            MDC.remove("sort");
+            MDC.remove("order");
+            MDC.remove("search");
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, SqlStatementContext context) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("cms.http.server.requests.sql")
+                .description("SQL statements prepared per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .serviceLevelObjectives(1, 2, 3, 5, 10, 25, 100)
+                .register(meterRegistry)
+                .record(context.statements());
+
+        for (SqlStatementContext.SlowStatement slow : context.slowStatements()) {
+            log.warn("Slow query {} ms in {} {} [sort={}, order={}, search={}]: {}",
+                    TimeUnit.NANOSECONDS.toMillis(slow.nanos()), request.getMethod(), uri,
+                    MDC.get("sort"), MDC.get("order"), MDC.get("search"), slow.sql());
+        }
+        if (!context.slowStatements().isEmpty()) {
+            meterRegistry.counter("cms.db.slow.queries", "method", request.getMethod(), "uri", uri)
+                    .increment(context.slowStatements().size());
+        }
+    }
+
+    private static void putMdc(String key, String value) {
+        if (value != null) {
+            MDC.put(key, value);
+        }
+    }
+
+    private static String truncate(String value) {
+        if (value == null || value.length() <= MAX_LOGGED_SEARCH_LENGTH) {
+            return value;
+        }
+        return value.substring(0, MAX_LOGGED_SEARCH_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,26 @@
+package com.nuwandev.cms.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times each JDBC execution for the slow-query log. Hibernate creates one per session from
+ * {@code hibernate.session.events.auto}.
+ */
+public class SqlExecutionTimingListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        SqlStatementContext context = SqlStatementContext.current();
+        if (context != null) {
+            context.onExecutionStarted();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementContext context = SqlStatementContext.current();
+        if (context != null) {
+            context.onExecutionEnded();
+        }
+    }
+}
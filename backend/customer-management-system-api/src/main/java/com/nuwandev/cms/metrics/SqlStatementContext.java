@@ -0,0 +1,66 @@
+package com.nuwandev.cms.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-request SQL bookkeeping, fed by Hibernate on the request thread and read by {@link RequestMetricsFilter}
+ * when the request completes. Work outside a request (startup, imports' own threads, streamed exports) has no
+ * context and is not counted.
+ */
+public final class SqlStatementContext {
+
+    private static final ThreadLocal<SqlStatementContext> CURRENT = new ThreadLocal<>();
+
+    private final long slowThresholdNanos;
+    private final List<SlowStatement> slowStatements = new ArrayList<>(0);
+    private int statements;
+    private String lastSql;
+    private long executionStarted;
+
+    private SqlStatementContext(long slowThresholdNanos) {
+        this.slowThresholdNanos = slowThresholdNanos;
+    }
+
+    static SqlStatementContext begin(long slowThresholdNanos) {
+        SqlStatementContext context = new SqlStatementContext(slowThresholdNanos);
+        CURRENT.set(context);
+        return context;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static SqlStatementContext current() {
+        return CURRENT.get();
+    }
+
+    void onStatementPrepared(String sql) {
+        statements++;
+        lastSql = sql;
+    }
+
+    void onExecutionStarted() {
+        executionStarted = System.nanoTime();
+    }
+
+    void onExecutionEnded() {
+        long elapsed = System.nanoTime() - executionStarted;
+        if (executionStarted != 0 && elapsed >= slowThresholdNanos) {
+            slowStatements.add(new SlowStatement(lastSql, elapsed));
+        }
+        executionStarted = 0;
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    List<SlowStatement> slowStatements() {
+        return slowStatements;
+    }
+
+    record SlowStatement(String sql, long nanos) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.nuwandev.cms.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares on a request thread, so N+1 selects and read-then-write pairs
+ * show up in {@code cms.http.server.requests.sql}. Registered through
+ * {@code hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementContext context = SqlStatementContext.current();
+        if (context != null) {
+            context.onStatementPrepared(sql);
+        }
+        return sql;
+    }
+}
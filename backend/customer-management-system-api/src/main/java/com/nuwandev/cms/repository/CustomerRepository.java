@@ -1,9 +1,82 @@
 package com.nuwandev.cms.repository;
 
 import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.dto.CustomerDailyCountDto;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.enums.Status;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface CustomerRepository extends JpaRepository<Customer, String>, JpaSpecificationExecutor<Customer> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CustomerRepository extends JpaRepository<Customer, UUID>, JpaSpecificationExecutor<Customer>, CustomerRepositoryCustom {
     Customer findByEmail(String email);
-}
\ No newline at end of file
+
+    @Query("""
+            select new com.nuwandev.cms.dto.CustomerResponseDto(
+                c.id, c.firstName, c.lastName, c.email, c.phone, c.status, c.createdAt, c.updatedAt, c.version)
+            from Customer c where c.id = :id
+            """)
+    Optional<CustomerResponseDto> findDtoById(@Param("id") UUID id);
+
+    @Query("""
+            select new com.nuwandev.cms.dto.CustomerResponseDto(
+                c.id, c.firstName, c.lastName, c.email, c.phone, c.status, c.createdAt, c.updatedAt, c.version)
+            from Customer c where c.id in :ids
+            """)
+    List<CustomerResponseDto> findDtosByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Applies an update only if the row is still at {@code version}, so an {@code If-Match} conflict is detected by
+     * the write itself. Returns 0 when the customer is missing or has moved on.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Customer c
+            set c.firstName = :firstName, c.lastName = :lastName, c.phone = :phone, c.status = :status,
+                c.updatedAt = :updatedAt, c.version = c.version + 1
+            where c.id = :id and c.version = :version
+            """)
+    int updateIfVersion(
+            @Param("id") UUID id,
+            @Param("version") long version,
+            @Param("firstName") String firstName,
+            @Param("lastName") String lastName,
+            @Param("phone") String phone,
+            @Param("status") Status status,
+            @Param("updatedAt") LocalDateTime updatedAt
+    );
+
+    long countByStatus(Status status);
+
+    @Query("""
+            select new com.nuwandev.cms.dto.CustomerDailyCountDto(cast(c.createdAt as LocalDate), count(c))
+            from Customer c where c.createdAt >= :since
+            group by cast(c.createdAt as LocalDate)
+            """)
+    List<CustomerDailyCountDto> countCreatedPerDaySince(@Param("since") LocalDateTime since);
+
+    List<Customer> findTop500ByIdGreaterThanOrderByIdAsc(UUID id);
+
+    /**
+     * Id and version of customers written at or after {@code since}, for invalidating other nodes' caches.
+     */
+    List<CustomerVersion> findByUpdatedAtGreaterThanEqual(LocalDateTime since, Limit limit);
+
+    @Query("select c.email from Customer c where c.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    interface CustomerVersion {
+        UUID getId();
+
+        Long getVersion();
+    }
+}
@@ -0,0 +1,23 @@
+package com.nuwandev.cms.repository;
+
+import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Specification queries that select {@link CustomerResponseDto} rows directly, so listing never loads
+ * managed {@link Customer} entities, snapshots them for dirty checking, or copies them a second time.
+ */
+public interface CustomerRepositoryCustom {
+
+    List<CustomerResponseDto> findProjected(Specification<Customer> spec, Sort sort, long offset, int limit);
+
+    /**
+     * Forward-only stream over every matching row; the caller must consume it inside a transaction and close it.
+     */
+    Stream<CustomerResponseDto> streamProjected(Specification<Customer> spec, Sort sort, int fetchSize);
+}
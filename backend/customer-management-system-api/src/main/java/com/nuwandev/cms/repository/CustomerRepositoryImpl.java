@@ -0,0 +1,64 @@
+package com.nuwandev.cms.repository;
+
+import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CustomerResponseDto> findProjected(Specification<Customer> spec, Sort sort, long offset, int limit) {
+        return createQuery(spec, sort)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<CustomerResponseDto> streamProjected(Specification<Customer> spec, Sort sort, int fetchSize) {
+        return createQuery(spec, sort)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    private TypedQuery<CustomerResponseDto> createQuery(Specification<Customer> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CustomerResponseDto> cq = cb.createQuery(CustomerResponseDto.class);
+        Root<Customer> root = cq.from(Customer.class);
+
+        cq.select(cb.construct(CustomerResponseDto.class,
+                root.get("id"),
+                root.get("firstName"),
+                root.get("lastName"),
+                root.get("email"),
+                root.get("phone"),
+                root.get("status"),
+                root.get("createdAt"),
+                root.get("updatedAt"),
+                root.get("version")));
+
+        Predicate predicate = spec.toPredicate(root, cq, cb);
+        if (predicate != null) {
+            cq.where(predicate);
+        }
+        cq.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(cq);
+    }
+}
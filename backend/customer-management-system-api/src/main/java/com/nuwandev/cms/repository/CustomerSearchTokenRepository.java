@@ -0,0 +1,35 @@
+package com.nuwandev.cms.repository;
+
+import com.nuwandev.cms.domain.CustomerSearchToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface CustomerSearchTokenRepository extends JpaRepository<CustomerSearchToken, CustomerSearchToken.Key> {
+
+    @Modifying
+    @Query("delete from CustomerSearchToken t where t.customerId = :customerId")
+    void deleteByCustomerId(@Param("customerId") UUID customerId);
+
+    @Modifying
+    @Query("delete from CustomerSearchToken t where t.customerId in :customerIds")
+    void deleteByCustomerIdIn(@Param("customerIds") Collection<UUID> customerIds);
+
+    /**
+     * Ids of customers that contain every one of {@code tokens}, best matches first.
+     */
+    @Query("""
+            select t.customerId from CustomerSearchToken t
+            where t.token in :tokens
+            group by t.customerId
+            having count(t.token) = :tokenCount
+            order by sum(t.weight) desc, t.customerId
+            """)
+    List<UUID> findRankedCustomerIds(@Param("tokens") Collection<String> tokens, @Param("tokenCount") long tokenCount, Pageable pageable);
+}
@@ -0,0 +1,37 @@
+package com.nuwandev.cms.repository;
+
+import com.nuwandev.cms.domain.CustomerTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface CustomerTombstoneRepository extends JpaRepository<CustomerTombstone, UUID> {
+
+    @Query("""
+            select t from CustomerTombstone t
+            where (t.deletedAt > :deletedAt or (t.deletedAt = :deletedAt and t.id > :id))
+              and t.deletedAt < :horizon
+            order by t.deletedAt, t.id
+            """)
+    List<CustomerTombstone> findAfter(
+            @Param("deletedAt") LocalDateTime deletedAt,
+            @Param("id") UUID id,
+            @Param("horizon") LocalDateTime horizon,
+            Limit limit
+    );
+
+    @Query("select t.id from CustomerTombstone t where t.deletedAt >= :since")
+    List<UUID> findIdsDeletedSince(@Param("since") LocalDateTime since, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from CustomerTombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
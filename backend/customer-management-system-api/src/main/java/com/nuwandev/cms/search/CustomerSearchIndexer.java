@@ -0,0 +1,116 @@
+package com.nuwandev.cms.search;
+
+import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.domain.CustomerSearchToken;
+import com.nuwandev.cms.repository.CustomerRepository;
+import com.nuwandev.cms.repository.CustomerSearchTokenRepository;
+import com.nuwandev.cms.shard.Shards;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps {@code customer_search_tokens} in step with {@code customers}. Writes join the caller's
+ * transaction so the index never disagrees with committed customer rows.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerSearchIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerSearchIndexer.class);
+
+    private final CustomerRepository customerRepository;
+    private final CustomerSearchTokenRepository tokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Shards shards;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void index(Customer customer) {
+        // persist() rather than saveAll(): the keys are assigned, so save() would merge and select every token first.
+        CustomerSearchTokenizer.indexTokens(customer).forEach((token, weight) ->
+                entityManager.persist(new CustomerSearchToken(token, customer.getId(), weight)));
+    }
+
+    public void reindex(Customer customer) {
+        remove(customer.getId());
+        index(customer);
+    }
+
+    public void remove(UUID customerId) {
+        tokenRepository.deleteByCustomerId(customerId);
+    }
+
+    public void removeAll(Collection<UUID> customerIds) {
+        tokenRepository.deleteByCustomerIdIn(customerIds);
+    }
+
+    /**
+     * Backfills the index for customers written before it existed, shard by shard. Progress is the id high-water
+     * mark in {@code customer_search_index_state}: an interrupted backfill resumes where it stopped, and once it
+     * reaches the end the row is marked complete and later starts only read it.
+     */
+    public void backfill() {
+        shards.forEach(shard -> backfillShard());
+    }
+
+    private void backfillShard() {
+        long indexed = 0;
+        int batch;
+        while ((batch = transactionTemplate.execute(status -> backfillBatch())) > 0) {
+            indexed += batch;
+        }
+        if (indexed > 0) {
+            log.info("Customer search index backfilled for {} customers", indexed);
+        }
+    }
+
+    /**
+     * Indexes the next batch after the high-water mark and advances it, holding the state row's lock throughout:
+     * instances starting together take turns on the batches instead of indexing the same customers. The batch is
+     * re-indexed (delete, then insert), so customers a live write already indexed are not inserted twice.
+     */
+    private int backfillBatch() {
+        Object[] state = (Object[]) entityManager.createNativeQuery(
+                        "SELECT backfilled_through, completed_at FROM customer_search_index_state WHERE id = 1 FOR UPDATE")
+                .getSingleResult();
+        if (state[1] != null) {
+            return 0;
+        }
+
+        List<Customer> customers = customerRepository.findTop500ByIdGreaterThanOrderByIdAsc(fromBytes((byte[]) state[0]));
+        if (customers.isEmpty()) {
+            entityManager.createNativeQuery("UPDATE customer_search_index_state SET completed_at = ? WHERE id = 1")
+                    .setParameter(1, LocalDateTime.now())
+                    .executeUpdate();
+            return 0;
+        }
+
+        removeAll(customers.stream().map(Customer::getId).toList());
+        customers.forEach(this::index);
+        entityManager.createNativeQuery("UPDATE customer_search_index_state SET backfilled_through = ? WHERE id = 1")
+                .setParameter(1, toBytes(customers.get(customers.size() - 1).getId()))
+                .executeUpdate();
+        return customers.size();
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
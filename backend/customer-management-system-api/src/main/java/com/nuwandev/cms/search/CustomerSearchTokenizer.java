@@ -0,0 +1,78 @@
+package com.nuwandev.cms.search;
+
+import com.nuwandev.cms.domain.Customer;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits searchable customer fields into index tokens.
+ * <p>
+ * Every field contributes its trigrams, so any query of three or more characters that is a substring of a
+ * field shares all of its trigrams with that field. Queries shorter than a trigram have no tokens and fall back
+ * to the plain {@code LIKE} scan, which keeps their substring semantics ({@code jo} finds "Bjorn", {@code @g}
+ * finds gmail addresses). Trigrams at the start of a field or word weigh more, which is what ranks prefix
+ * matches above mid-word matches.
+ */
+public final class CustomerSearchTokenizer {
+
+    static final int GRAM = 3;
+
+    private static final int WEIGHT_FIELD_START = 3;
+    private static final int WEIGHT_WORD_START = 2;
+    private static final int WEIGHT_INNER = 1;
+
+    private CustomerSearchTokenizer() {
+    }
+
+    public static Map<String, Integer> indexTokens(Customer customer) {
+        Map<String, Integer> tokens = new HashMap<>();
+        addField(tokens, customer.getFirstName());
+        addField(tokens, customer.getLastName());
+        addField(tokens, customer.getEmail());
+        addField(tokens, customer.getPhone());
+        return tokens;
+    }
+
+    /**
+     * Tokens a matching customer must all contain. Empty when the query is blank or shorter than a trigram;
+     * the caller then has to fall back to {@link com.nuwandev.cms.specification.CustomerSpecification#matches}.
+     */
+    public static Set<String> queryTokens(String query) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (query == null || query.isBlank()) {
+            return tokens;
+        }
+        String value = normalize(query);
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            tokens.add(value.substring(i, i + GRAM));
+        }
+        return tokens;
+    }
+
+    private static void addField(Map<String, Integer> tokens, String field) {
+        if (field == null || field.isEmpty()) {
+            return;
+        }
+        String value = normalize(field);
+        for (int i = 0; i < value.length(); i++) {
+            boolean wordStart = i == 0 || isBoundary(value.charAt(i - 1));
+            int weight = i == 0 ? WEIGHT_FIELD_START : wordStart ? WEIGHT_WORD_START : WEIGHT_INNER;
+
+            if (i + GRAM <= value.length()) {
+                tokens.merge(value.substring(i, i + GRAM), weight, Math::max);
+            }
+        }
+    }
+
+    private static boolean isBoundary(char c) {
+        return Character.isWhitespace(c) || c == '.' || c == '@' || c == '-' || c == '_' || c == '+';
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,489 @@
+package com.nuwandev.cms.search;
+
+import com.nuwandev.cms.datasource.ReadYourWrites;
+import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.dto.CustomerSuggestionDto;
+import com.nuwandev.cms.event.CustomerChangedEvent;
+import com.nuwandev.cms.repository.CustomerRepository;
+import com.nuwandev.cms.repository.CustomerTombstoneRepository;
+import com.nuwandev.cms.shard.Shards;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process typeahead over customer names and emails.
+ * <p>
+ * The bulk of the index is a {@link SuggestSnapshot}: sorted primitive arrays with no objects per customer, built
+ * at startup. Writes go to a small sorted delta in front of it, and every customer written there hides its older
+ * entries in the snapshot. Once the delta holds {@code cms.suggest.compact-after} customers it is frozen, a
+ * background thread merges it into a new snapshot, and queries keep reading the frozen delta until the swap.
+ * <p>
+ * A lookup seeks the prefix in the snapshot and in each delta, then merges the three sorted streams: O(log n + k),
+ * no database access. Memory is capped by {@code cms.suggest.max-size}, counted as the size the customers take in a
+ * snapshot; customers that do not fit are left out.
+ * <p>
+ * Writes made through other instances are picked up every {@code cms.suggest.sync-interval} from the change-feed
+ * indexes, reaching back {@code cms.changes.settle-window} like {@code CustomerCacheInvalidator} does. When more
+ * than {@code cms.suggest.max-sync-changes} customers changed in one poll, the snapshot is rebuilt instead.
+ */
+@Component
+public class CustomerSuggestIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerSuggestIndex.class);
+
+    private static final char SEPARATOR = '\0';
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_EMAIL = "email";
+    private static final int LOOKUP_BATCH = 1000;
+
+    private final CustomerRepository customerRepository;
+    private final CustomerTombstoneRepository tombstoneRepository;
+    private final Shards shards;
+    private final long maxBytes;
+    private final int compactAfter;
+    private final boolean buildInBackground;
+    private final Duration settleWindow;
+    private final int maxSyncChanges;
+    private LocalDateTime lastSync = LocalDateTime.now();
+
+    // Writers hold the read lock while they touch the active delta; freezing or swapping it takes the write lock.
+    private final ReadWriteLock layers = new ReentrantReadWriteLock();
+    private volatile State state = new State(SuggestSnapshot.EMPTY, null, new Delta());
+    private volatile boolean building;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final AtomicBoolean full = new AtomicBoolean();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("suggest-compaction").factory());
+
+    public CustomerSuggestIndex(
+            CustomerRepository customerRepository,
+            CustomerTombstoneRepository tombstoneRepository,
+            Shards shards,
+            @Value("${cms.suggest.max-size:384MB}") DataSize maxSize,
+            @Value("${cms.suggest.compact-after:10000}") int compactAfter,
+            @Value("${cms.suggest.build-in-background:false}") boolean buildInBackground,
+            @Value("${cms.changes.settle-window:PT5S}") Duration settleWindow,
+            @Value("${cms.suggest.max-sync-changes:50000}") int maxSyncChanges
+    ) {
+        this.customerRepository = customerRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.shards = shards;
+        this.maxBytes = maxSize.toBytes();
+        this.compactAfter = compactAfter;
+        this.buildInBackground = buildInBackground;
+        this.settleWindow = settleWindow;
+        this.maxSyncChanges = maxSyncChanges;
+    }
+
+    public List<CustomerSuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        State current = state;
+        List<Iterator<Candidate>> sources = new ArrayList<>(3);
+        sources.add(new SnapshotCandidates(current, key));
+        if (current.frozen != null) {
+            sources.add(current.frozen.candidates(key, current.active));
+        }
+        sources.add(current.active.candidates(key, null));
+
+        Candidate[] heads = new Candidate[sources.size()];
+        for (int i = 0; i < heads.length; i++) {
+            heads[i] = sources.get(i).hasNext() ? sources.get(i).next() : null;
+        }
+
+        List<CustomerSuggestionDto> result = new ArrayList<>(limit);
+        Set<String> seen = new HashSet<>();
+        while (result.size() < limit) {
+            int first = -1;
+            for (int i = 0; i < heads.length; i++) {
+                if (heads[i] != null && (first < 0 || heads[i].key().compareTo(heads[first].key()) < 0)) {
+                    first = i;
+                }
+            }
+            if (first < 0) {
+                break;
+            }
+            Candidate candidate = heads[first];
+            heads[first] = sources.get(first).hasNext() ? sources.get(first).next() : null;
+            if (seen.add(candidate.id() + candidate.field())) {
+                result.add(new CustomerSuggestionDto(candidate.id(), candidate.value(), candidate.field()));
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        UUID id = UUID.fromString(event.id());
+        apply(id, event.current() == null ? null : entry(event.current()));
+        compactIfDue();
+    }
+
+    /**
+     * Applies the customers created, updated or deleted since the previous sync, through this instance or any
+     * other. This instance's own writes come round again and are simply applied twice.
+     */
+    @Scheduled(
+            initialDelayString = "${cms.suggest.sync-interval:PT5S}",
+            fixedDelayString = "${cms.suggest.sync-interval:PT5S}"
+    )
+    public synchronized void syncChanges() {
+        LocalDateTime polledAt = LocalDateTime.now();
+        LocalDateTime since = lastSync.minus(settleWindow);
+        List<UUID> updated = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        // A replica may not have the writes yet.
+        ReadYourWrites.pinToPrimary();
+        try {
+            shards.forEach(shard -> {
+                if (updated.size() + deleted.size() <= maxSyncChanges) {
+                    syncChangesSince(since, updated, deleted);
+                }
+            });
+        } catch (RuntimeException e) {
+            // lastSync stays put, so the next poll covers this window again.
+            log.warn("Customer suggest index sync failed", e);
+            return;
+        } finally {
+            ReadYourWrites.clear();
+        }
+
+        if (updated.size() + deleted.size() > maxSyncChanges) {
+            // While a build or compaction runs, lastSync stays put and the next poll tries again.
+            if (!building && compacting.compareAndSet(false, true)) {
+                log.info("More than {} customers changed since the last suggest index sync, rebuilding it", maxSyncChanges);
+                building = true;
+                lastSync = polledAt;
+                compactor.execute(this::rebuild);
+            }
+            return;
+        }
+        lastSync = polledAt;
+        compactIfDue();
+    }
+
+    private void syncChangesSince(LocalDateTime since, List<UUID> updated, List<UUID> deleted) {
+        List<UUID> shardUpdated = customerRepository.findByUpdatedAtGreaterThanEqual(since, Limit.of(maxSyncChanges + 1)).stream()
+                .map(CustomerRepository.CustomerVersion::getId)
+                .toList();
+        List<UUID> shardDeleted = tombstoneRepository.findIdsDeletedSince(since, Limit.of(maxSyncChanges + 1));
+        updated.addAll(shardUpdated);
+        deleted.addAll(shardDeleted);
+        if (updated.size() + deleted.size() > maxSyncChanges) {
+            return;
+        }
+        for (int from = 0; from < shardUpdated.size(); from += LOOKUP_BATCH) {
+            List<UUID> batch = shardUpdated.subList(from, Math.min(from + LOOKUP_BATCH, shardUpdated.size()));
+            for (CustomerResponseDto customer : customerRepository.findDtosByIdIn(batch)) {
+                apply(UUID.fromString(customer.getId()), entry(customer));
+            }
+        }
+        for (UUID id : shardDeleted) {
+            apply(id, null);
+        }
+    }
+
+    private void apply(UUID id, SuggestSnapshot.Entry entry) {
+        layers.readLock().lock();
+        try {
+            Delta active = state.active;
+            active.written.add(id);
+            active.customers.compute(id, (key, previous) -> {
+                if (previous != null) {
+                    active.remove(previous);
+                }
+                if (entry == null) {
+                    return null;
+                }
+                if (bytes() + entry.bytes() > maxBytes) {
+                    warnFull();
+                    return null;
+                }
+                active.add(entry);
+                return entry;
+            });
+        } finally {
+            layers.readLock().unlock();
+        }
+    }
+
+    private void compactIfDue() {
+        if (!building && state.active.written.size() >= compactAfter && compacting.compareAndSet(false, true)) {
+            compactor.execute(this::compact);
+        }
+    }
+
+    /** Loads the snapshot at startup, in the background with {@code cms.suggest.build-in-background}. */
+    public void start() {
+        building = true;
+        if (buildInBackground) {
+            // Until it finishes, suggestions only cover customers written since startup.
+            Thread.ofVirtual().name("suggest-index-build").start(this::build);
+        } else {
+            build();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        compactor.shutdownNow();
+    }
+
+    private void build() {
+        SuggestSnapshot.Builder builder = new SuggestSnapshot.Builder();
+        try {
+            shards.forEach(shard -> load(builder));
+            SuggestSnapshot snapshot = builder.build();
+            layers.writeLock().lock();
+            try {
+                // Customers written during the build are in the delta, which hides whatever the build read of them.
+                state = new State(snapshot, null, state.active);
+            } finally {
+                layers.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            if (!buildInBackground) {
+                throw e;
+            }
+            log.error("Customer suggest index build failed after {} customers", builder.size(), e);
+            return;
+        } finally {
+            building = false;
+        }
+        log.info("Customer suggest index built with {} customers ({} KB)", builder.size(), state.base.bytes() / 1024);
+    }
+
+    /** A full reload on the compaction thread, which keeps it from racing a compaction's swap. */
+    private void rebuild() {
+        try {
+            build();
+        } catch (RuntimeException e) {
+            log.error("Customer suggest index rebuild failed", e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    private void load(SuggestSnapshot.Builder builder) {
+        UUID lastId = new UUID(0, 0);
+        List<Customer> batch;
+        while (!(batch = customerRepository.findTop500ByIdGreaterThanOrderByIdAsc(lastId)).isEmpty()) {
+            for (Customer customer : batch) {
+                SuggestSnapshot.Entry entry = new SuggestSnapshot.Entry(customer.getId(), customer.getFirstName(), customer.getLastName(), customer.getEmail());
+                if (builder.bytes() + state.active.bytes.get() + entry.bytes() > maxBytes) {
+                    warnFull();
+                } else {
+                    builder.add(entry);
+                }
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    private void compact() {
+        try {
+            State frozen;
+            layers.writeLock().lock();
+            try {
+                // A delta left frozen by a failed compaction is merged first; the active one waits for the next round.
+                if (state.frozen == null) {
+                    state = new State(state.base, state.active, new Delta());
+                }
+                frozen = state;
+            } finally {
+                layers.writeLock().unlock();
+            }
+
+            SuggestSnapshot merged = frozen.base.merge(frozen.frozen.written, frozen.frozen.customers.values());
+            layers.writeLock().lock();
+            try {
+                state = new State(merged, null, state.active);
+            } finally {
+                layers.writeLock().unlock();
+            }
+            if (bytes() < maxBytes) {
+                full.set(false);
+            }
+        } catch (RuntimeException e) {
+            log.error("Customer suggest index compaction failed", e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    private long bytes() {
+        State current = state;
+        return current.base.bytes() + (current.frozen != null ? current.frozen.bytes.get() : 0) + current.active.bytes.get();
+    }
+
+    private void warnFull() {
+        if (full.compareAndSet(false, true)) {
+            log.warn("Customer suggest index is full ({} bytes), customers that do not fit are left out", maxBytes);
+        }
+    }
+
+    private static SuggestSnapshot.Entry entry(CustomerResponseDto customer) {
+        return new SuggestSnapshot.Entry(UUID.fromString(customer.getId()), customer.getFirstName(), customer.getLastName(), customer.getEmail());
+    }
+
+    private static String key(String term, UUID id) {
+        return normalize(term) + SEPARATOR + id;
+    }
+
+    /** Trimmed and lower-cased a character at a time, the order {@link SuggestSnapshot} sorts its terms in. */
+    private static String normalize(String value) {
+        String stripped = value.strip();
+        char[] chars = new char[stripped.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(stripped.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    private record State(SuggestSnapshot base, Delta frozen, Delta active) {
+    }
+
+    /** Sorted by {@code key}: term, separator, id, the same order as the snapshot's references. */
+    private record Candidate(String key, String id, String value, String field) {
+    }
+
+    /**
+     * Customers written since the last compaction. {@code written} holds every customer created, updated or
+     * deleted here, and hides their entries in older layers.
+     */
+    private static final class Delta {
+
+        private final ConcurrentSkipListMap<String, Candidate> terms = new ConcurrentSkipListMap<>();
+        private final Map<UUID, SuggestSnapshot.Entry> customers = new ConcurrentHashMap<>();
+        private final Set<UUID> written = ConcurrentHashMap.newKeySet();
+        private final AtomicLong bytes = new AtomicLong();
+
+        void add(SuggestSnapshot.Entry entry) {
+            String id = entry.id().toString();
+            String fullName = entry.fullName();
+            put(new Candidate(key(fullName, entry.id()), id, fullName, FIELD_NAME));
+            put(new Candidate(key(entry.lastName(), entry.id()), id, fullName, FIELD_NAME));
+            put(new Candidate(key(entry.email(), entry.id()), id, entry.email(), FIELD_EMAIL));
+            bytes.addAndGet(entry.bytes());
+        }
+
+        void remove(SuggestSnapshot.Entry entry) {
+            terms.remove(key(entry.fullName(), entry.id()));
+            terms.remove(key(entry.lastName(), entry.id()));
+            terms.remove(key(entry.email(), entry.id()));
+            bytes.addAndGet(-entry.bytes());
+        }
+
+        /** Candidates starting with {@code prefix}, less those a newer layer has written. */
+        Iterator<Candidate> candidates(String prefix, Delta newer) {
+            Iterator<Candidate> all = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values().iterator();
+            if (newer == null) {
+                return all;
+            }
+            return new Iterator<>() {
+                private Candidate next = advance();
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Candidate next() {
+                    Candidate current = next;
+                    next = advance();
+                    return current;
+                }
+
+                private Candidate advance() {
+                    while (all.hasNext()) {
+                        Candidate candidate = all.next();
+                        if (!newer.written.contains(UUID.fromString(candidate.id()))) {
+                            return candidate;
+                        }
+                    }
+                    return null;
+                }
+            };
+        }
+
+        private void put(Candidate candidate) {
+            terms.put(candidate.key(), candidate);
+        }
+    }
+
+    /** Snapshot terms starting with the prefix, in order, less the customers either delta has written. */
+    private static final class SnapshotCandidates implements Iterator<Candidate> {
+
+        private final SuggestSnapshot snapshot;
+        private final Delta frozen;
+        private final Delta active;
+        private final String prefix;
+        private int index;
+        private Candidate next;
+
+        private SnapshotCandidates(State state, String prefix) {
+            this.snapshot = state.base;
+            this.frozen = state.frozen;
+            this.active = state.active;
+            this.prefix = prefix;
+            this.index = snapshot.firstTermAtOrAfter(prefix);
+            this.next = advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Candidate next() {
+            Candidate current = next;
+            next = advance();
+            return current;
+        }
+
+        private Candidate advance() {
+            while (index < snapshot.termCount()) {
+                int ref = snapshot.termRef(index++);
+                if (!snapshot.termStartsWith(ref, prefix)) {
+                    index = snapshot.termCount();
+                    return null;
+                }
+                int slot = ref >>> 2;
+                UUID id = snapshot.id(slot);
+                if (active.written.contains(id) || (frozen != null && frozen.written.contains(id))) {
+                    continue;
+                }
+                boolean email = (ref & 3) == SuggestSnapshot.KIND_EMAIL;
+                return new Candidate(snapshot.term(ref) + SEPARATOR + id, id.toString(),
+                        email ? snapshot.email(slot) : snapshot.fullName(slot), email ? FIELD_EMAIL : FIELD_NAME);
+            }
+            return null;
+        }
+    }
+}
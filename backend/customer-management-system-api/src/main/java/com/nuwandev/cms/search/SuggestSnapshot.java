@@ -0,0 +1,423 @@
+package com.nuwandev.cms.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Immutable, compact form of the suggest index. Every customer is a slot in id order: its id as two longs, and
+ * its name and email as offsets into one shared {@code char[]}. Its three terms (full name, last name, email) are
+ * {@code int} references ({@code slot << 2 | kind}) sorted by lower-cased term text, then by id, so a prefix
+ * lookup is a binary search over the references followed by a forward scan.
+ * <p>
+ * There are no objects per customer: a slot costs {@link #SLOT_BYTES} plus two bytes per character of name and
+ * email, which is what {@code cms.suggest.max-size} is measured in.
+ */
+final class SuggestSnapshot {
+
+    /** Id (16), four text offsets (16) and three term references (12). */
+    static final int SLOT_BYTES = 44;
+
+    static final int KIND_FULL_NAME = 0;
+    static final int KIND_LAST_NAME = 1;
+    static final int KIND_EMAIL = 2;
+
+    static final SuggestSnapshot EMPTY = new Builder().build();
+
+    private final long[] idHigh;
+    private final long[] idLow;
+    private final char[] text;
+    // Per slot: first name + ' ' + last name + email, laid out at [start, end) of text.
+    private final int[] start;
+    private final int[] lastNameAt;
+    private final int[] emailAt;
+    private final int[] end;
+    private final int size;
+    private final long bytes;
+    private final int[] terms;
+
+    private SuggestSnapshot(long[] idHigh, long[] idLow, char[] text, int[] start, int[] lastNameAt, int[] emailAt, int[] end, int size) {
+        this.idHigh = idHigh;
+        this.idLow = idLow;
+        this.text = text;
+        this.start = start;
+        this.lastNameAt = lastNameAt;
+        this.emailAt = emailAt;
+        this.end = end;
+        this.size = size;
+        this.terms = new int[size * 3];
+        long chars = 0;
+        for (int slot = 0; slot < size; slot++) {
+            chars += end[slot] - start[slot];
+        }
+        this.bytes = (long) size * SLOT_BYTES + chars * 2;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long bytes() {
+        return bytes;
+    }
+
+    static long bytes(String firstName, String lastName, String email) {
+        return SLOT_BYTES + 2L * (firstName.length() + 1 + lastName.length() + email.length());
+    }
+
+    /** The slot holding {@code id}, or -1. */
+    int slotOf(UUID id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int cmp = compareIds(idHigh[middle], idLow[middle], id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (cmp < 0) {
+                low = middle + 1;
+            } else if (cmp > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    UUID id(int slot) {
+        return new UUID(idHigh[slot], idLow[slot]);
+    }
+
+    String fullName(int slot) {
+        return new String(text, start[slot], emailAt[slot] - start[slot]);
+    }
+
+    String email(int slot) {
+        return new String(text, emailAt[slot], end[slot] - emailAt[slot]);
+    }
+
+    int termCount() {
+        return terms.length;
+    }
+
+    int termRef(int index) {
+        return terms[index];
+    }
+
+    /** Index of the first term not ordered before {@code prefix} (already normalized). */
+    int firstTermAtOrAfter(String prefix) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareTermTo(terms[middle], prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    boolean termStartsWith(int ref, String prefix) {
+        int from = termFrom(ref);
+        int to = termTo(ref);
+        if (to - from < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (Character.toLowerCase(text[from + i]) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The term as it is ordered: trimmed and lower-cased. */
+    String term(int ref) {
+        int from = termFrom(ref);
+        char[] chars = new char[termTo(ref) - from];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(text[from + i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * This snapshot without the customers in {@code hidden}, plus {@code added}. Slots of both are merged in id
+     * order and the surviving term references keep their relative order, so only the added terms are sorted.
+     */
+    SuggestSnapshot merge(Set<UUID> hidden, Collection<Entry> added) {
+        List<Entry> sortedAdded = added.stream()
+                .sorted((a, b) -> compareIds(a.id().getMostSignificantBits(), a.id().getLeastSignificantBits(),
+                        b.id().getMostSignificantBits(), b.id().getLeastSignificantBits()))
+                .toList();
+
+        Builder builder = new Builder();
+        int[] remap = new int[size];
+        int[] addedRefs = new int[sortedAdded.size() * 3];
+        int next = 0;
+        for (int slot = 0; slot < size; slot++) {
+            while (next < sortedAdded.size() && compareIds(sortedAdded.get(next).id(), idHigh[slot], idLow[slot]) < 0) {
+                addRefs(addedRefs, next, builder.size);
+                builder.add(sortedAdded.get(next++));
+            }
+            if (hidden.contains(id(slot))) {
+                remap[slot] = -1;
+            } else {
+                remap[slot] = builder.size;
+                builder.add(id(slot), text, start[slot], lastNameAt[slot], emailAt[slot], end[slot]);
+            }
+        }
+        while (next < sortedAdded.size()) {
+            addRefs(addedRefs, next, builder.size);
+            builder.add(sortedAdded.get(next++));
+        }
+        SuggestSnapshot merged = builder.snapshot();
+
+        int kept = 0;
+        for (int ref : terms) {
+            int slot = remap[ref >>> 2];
+            if (slot >= 0) {
+                merged.terms[kept++] = slot << 2 | (ref & 3);
+            }
+        }
+        sort(addedRefs, merged::compareTerms);
+
+        int[] survivors = Arrays.copyOf(merged.terms, kept);
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < survivors.length || j < addedRefs.length) {
+            if (j == addedRefs.length || (i < survivors.length && merged.compareTerms(survivors[i], addedRefs[j]) <= 0)) {
+                merged.terms[k++] = survivors[i++];
+            } else {
+                merged.terms[k++] = addedRefs[j++];
+            }
+        }
+        return merged;
+    }
+
+    private static void addRefs(int[] refs, int index, int slot) {
+        refs[index * 3] = slot << 2 | KIND_FULL_NAME;
+        refs[index * 3 + 1] = slot << 2 | KIND_LAST_NAME;
+        refs[index * 3 + 2] = slot << 2 | KIND_EMAIL;
+    }
+
+    private int compareTerms(int a, int b) {
+        int aFrom = termFrom(a);
+        int aTo = termTo(a);
+        int bFrom = termFrom(b);
+        int bTo = termTo(b);
+        int length = Math.min(aTo - aFrom, bTo - bFrom);
+        for (int i = 0; i < length; i++) {
+            char x = Character.toLowerCase(text[aFrom + i]);
+            char y = Character.toLowerCase(text[bFrom + i]);
+            if (x != y) {
+                return x - y;
+            }
+        }
+        int cmp = Integer.compare(aTo - aFrom, bTo - bFrom);
+        // Slots are in id order, so this is the id tie-break the delta's keys use as well.
+        return cmp != 0 ? cmp : Integer.compare(a >>> 2, b >>> 2);
+    }
+
+    private int compareTermTo(int ref, String prefix) {
+        int from = termFrom(ref);
+        int to = termTo(ref);
+        int length = Math.min(to - from, prefix.length());
+        for (int i = 0; i < length; i++) {
+            char x = Character.toLowerCase(text[from + i]);
+            char y = prefix.charAt(i);
+            if (x != y) {
+                return x - y;
+            }
+        }
+        return Integer.compare(to - from, prefix.length());
+    }
+
+    private int termFrom(int ref) {
+        int from = rawFrom(ref);
+        int to = rawTo(ref);
+        while (from < to && Character.isWhitespace(text[from])) {
+            from++;
+        }
+        return from;
+    }
+
+    private int termTo(int ref) {
+        int from = rawFrom(ref);
+        int to = rawTo(ref);
+        while (to > from && Character.isWhitespace(text[to - 1])) {
+            to--;
+        }
+        return to;
+    }
+
+    private int rawFrom(int ref) {
+        int slot = ref >>> 2;
+        return switch (ref & 3) {
+            case KIND_FULL_NAME -> start[slot];
+            case KIND_LAST_NAME -> lastNameAt[slot];
+            default -> emailAt[slot];
+        };
+    }
+
+    private int rawTo(int ref) {
+        return (ref & 3) == KIND_EMAIL ? end[ref >>> 2] : emailAt[ref >>> 2];
+    }
+
+    static int compareIds(long aHigh, long aLow, long bHigh, long bLow) {
+        int cmp = Long.compareUnsigned(aHigh, bHigh);
+        return cmp != 0 ? cmp : Long.compareUnsigned(aLow, bLow);
+    }
+
+    private static int compareIds(UUID a, long bHigh, long bLow) {
+        return compareIds(a.getMostSignificantBits(), a.getLeastSignificantBits(), bHigh, bLow);
+    }
+
+    /** Stable merge sort of primitive ints, so the references are never boxed. */
+    static void sort(int[] values, IntBinaryOperator comparator) {
+        int[] buffer = new int[values.length];
+        int[] from = values;
+        int[] to = buffer;
+        for (int width = 1; width < values.length; width *= 2) {
+            for (int low = 0; low < values.length; low += 2 * width) {
+                int middle = Math.min(low + width, values.length);
+                int high = Math.min(low + 2 * width, values.length);
+                int i = low;
+                int j = middle;
+                int k = low;
+                while (i < middle || j < high) {
+                    if (j == high || (i < middle && comparator.applyAsInt(from[i], from[j]) <= 0)) {
+                        to[k++] = from[i++];
+                    } else {
+                        to[k++] = from[j++];
+                    }
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != values) {
+            System.arraycopy(from, 0, values, 0, values.length);
+        }
+    }
+
+    /** A customer as the index holds it. */
+    record Entry(UUID id, String firstName, String lastName, String email) {
+
+        String fullName() {
+            return firstName + " " + lastName;
+        }
+
+        long bytes() {
+            return SuggestSnapshot.bytes(firstName, lastName, email);
+        }
+    }
+
+    /** Accumulates slots in any order; {@link #build()} sorts them by id and their terms by text. */
+    static final class Builder {
+
+        private long[] idHigh = new long[1024];
+        private long[] idLow = new long[1024];
+        private int[] start = new int[1024];
+        private int[] lastNameAt = new int[1024];
+        private int[] emailAt = new int[1024];
+        private int[] end = new int[1024];
+        private char[] text = new char[64 * 1024];
+        private int size;
+        private int length;
+
+        void add(Entry entry) {
+            String value = entry.fullName() + entry.email();
+            ensureText(value.length());
+            value.getChars(0, value.length(), text, length);
+            int at = length;
+            length += value.length();
+            append(entry.id(), at, at + entry.firstName().length() + 1, at + entry.fullName().length(), length);
+        }
+
+        private void add(UUID id, char[] source, int from, int lastNameFrom, int emailFrom, int to) {
+            ensureText(to - from);
+            System.arraycopy(source, from, text, length, to - from);
+            int at = length;
+            length += to - from;
+            append(id, at, at + (lastNameFrom - from), at + (emailFrom - from), length);
+        }
+
+        int size() {
+            return size;
+        }
+
+        long bytes() {
+            return (long) size * SLOT_BYTES + (long) length * 2;
+        }
+
+        SuggestSnapshot build() {
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            sort(order, (a, b) -> compareIds(idHigh[a], idLow[a], idHigh[b], idLow[b]));
+
+            long[] sortedHigh = new long[size];
+            long[] sortedLow = new long[size];
+            int[] sortedStart = new int[size];
+            int[] sortedLastName = new int[size];
+            int[] sortedEmail = new int[size];
+            int[] sortedEnd = new int[size];
+            for (int i = 0; i < size; i++) {
+                int slot = order[i];
+                sortedHigh[i] = idHigh[slot];
+                sortedLow[i] = idLow[slot];
+                sortedStart[i] = start[slot];
+                sortedLastName[i] = lastNameAt[slot];
+                sortedEmail[i] = emailAt[slot];
+                sortedEnd[i] = end[slot];
+            }
+            SuggestSnapshot snapshot = new SuggestSnapshot(sortedHigh, sortedLow, Arrays.copyOf(text, length),
+                    sortedStart, sortedLastName, sortedEmail, sortedEnd, size);
+            for (int slot = 0; slot < size; slot++) {
+                addRefs(snapshot.terms, slot, slot);
+            }
+            sort(snapshot.terms, snapshot::compareTerms);
+            return snapshot;
+        }
+
+        /** The slots as added (which must already be in id order), with the term references left to the caller. */
+        private SuggestSnapshot snapshot() {
+            return new SuggestSnapshot(Arrays.copyOf(idHigh, size), Arrays.copyOf(idLow, size), Arrays.copyOf(text, length),
+                    Arrays.copyOf(start, size), Arrays.copyOf(lastNameAt, size), Arrays.copyOf(emailAt, size),
+                    Arrays.copyOf(end, size), size);
+        }
+
+        private void append(UUID id, int at, int lastNameFrom, int emailFrom, int to) {
+            if (size == idHigh.length) {
+                int capacity = size * 2;
+                idHigh = Arrays.copyOf(idHigh, capacity);
+                idLow = Arrays.copyOf(idLow, capacity);
+                start = Arrays.copyOf(start, capacity);
+                lastNameAt = Arrays.copyOf(lastNameAt, capacity);
+                emailAt = Arrays.copyOf(emailAt, capacity);
+                end = Arrays.copyOf(end, capacity);
+            }
+            idHigh[size] = id.getMostSignificantBits();
+            idLow[size] = id.getLeastSignificantBits();
+            start[size] = at;
+            lastNameAt[size] = lastNameFrom;
+            emailAt[size] = emailFrom;
+            end[size] = to;
+            size++;
+        }
+
+        private void ensureText(int extra) {
+            if (length + extra > text.length) {
+                text = Arrays.copyOf(text, Math.max(text.length * 2, length + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.nuwandev.cms.service;
+
+import com.nuwandev.cms.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque change-feed position: the (change time, id) of the last change a client has seen. Live rows and
+ * tombstones share this ordering, so one token covers both.
+ */
+record ChangeToken(LocalDateTime at, UUID id) {
+
+    static final ChangeToken START = new ChangeToken(LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0, 0));
+
+    private static final String SEPARATOR = "|";
+
+    String encode() {
+        String raw = at + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ChangeToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 2);
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Malformed change token");
+            }
+            return new ChangeToken(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidCursorException("Malformed change token");
+        }
+    }
+
+    boolean isAfter(LocalDateTime otherAt, UUID otherId) {
+        int byTime = at.compareTo(otherAt);
+        return byTime > 0 || (byTime == 0 && id.compareTo(otherId) > 0);
+    }
+}
@@ -0,0 +1,132 @@
+package com.nuwandev.cms.service;
+
+import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.domain.CustomerTombstone;
+import com.nuwandev.cms.dto.CustomerChangeDto;
+import com.nuwandev.cms.dto.CustomerChangesResponseDto;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.enums.CustomerChangeType;
+import com.nuwandev.cms.exception.ChangeTokenExpiredException;
+import com.nuwandev.cms.repository.CustomerRepository;
+import com.nuwandev.cms.repository.CustomerTombstoneRepository;
+import com.nuwandev.cms.shard.Shards;
+import com.nuwandev.cms.specification.CustomerSpecification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Answers "what changed since this token" from two keyset scans: live customers in (updatedAt, id) order and
+ * tombstones in (deletedAt, id) order, merged into one ordered page. Each call reads at most {@code limit + 1}
+ * rows from each index, so its cost follows the churn since the token, not the table size.
+ * <p>
+ * Rows stamped within the last {@code cms.changes.settle-window} are held back: a transaction can stamp
+ * {@code updatedAt} before a concurrent one and commit after it, and a client whose token already moved past
+ * the stamp would never see that row. The window must exceed the longest write transaction plus replica lag.
+ * <p>
+ * A page that ends before the horizon returns a token at the horizon rather than at its last change, so a client
+ * polling a quiet feed keeps moving forward and its token never ages past the retention.
+ */
+@Slf4j
+@Component
+public class CustomerChangeFeed {
+
+    private static final Sort CHANGE_ORDER = Sort.by("updatedAt", "id");
+
+    private final CustomerRepository customerRepository;
+    private final CustomerTombstoneRepository tombstoneRepository;
+    private final Shards shards;
+    private final Duration settleWindow;
+    private final Duration retention;
+
+    public CustomerChangeFeed(
+            CustomerRepository customerRepository,
+            CustomerTombstoneRepository tombstoneRepository,
+            Shards shards,
+            @Value("${cms.changes.settle-window:PT5S}") Duration settleWindow,
+            @Value("${cms.changes.retention:P7D}") Duration retention
+    ) {
+        this.customerRepository = customerRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.shards = shards;
+        this.settleWindow = settleWindow;
+        this.retention = retention;
+    }
+
+    public CustomerChangesResponseDto changesSince(String since, int limit) {
+        return changesSince(since, limit, LocalDateTime.now());
+    }
+
+    /**
+     * The changes after {@code since} as of {@code now}. Shards are read with one {@code now}, so a scan that
+     * reaches every shard's horizon ends at the same token on all of them.
+     */
+    public CustomerChangesResponseDto changesSince(String since, int limit, LocalDateTime now) {
+        ChangeToken from = ChangeToken.decode(since);
+        if (from != ChangeToken.START && from.at().isBefore(now.minus(retention))) {
+            throw new ChangeTokenExpiredException();
+        }
+        LocalDateTime horizon = now.minus(settleWindow);
+
+        Specification<Customer> spec = CustomerSpecification.keysetAfter("updatedAt", from.at(), from.id(), true)
+                .and(CustomerSpecification.updatedBefore(horizon));
+        List<CustomerResponseDto> rows = customerRepository.findProjected(spec, CHANGE_ORDER, 0, limit + 1);
+        List<CustomerTombstone> tombstones = tombstoneRepository.findAfter(from.at(), from.id(), horizon, Limit.of(limit + 1));
+
+        List<CustomerChangeDto> changes = new ArrayList<>(Math.min(limit, rows.size() + tombstones.size()));
+        int r = 0;
+        int t = 0;
+        while (changes.size() < limit && (r < rows.size() || t < tombstones.size())) {
+            boolean takeRow = t == tombstones.size()
+                    || (r < rows.size() && tokenOf(tombstones.get(t)).isAfter(rows.get(r).getUpdatedAt(), UUID.fromString(rows.get(r).getId())));
+            if (takeRow) {
+                CustomerResponseDto row = rows.get(r++);
+                CustomerChangeType type = row.getVersion() != null && row.getVersion() == 0 ? CustomerChangeType.CREATED : CustomerChangeType.UPDATED;
+                changes.add(new CustomerChangeDto(row.getId(), type, row.getUpdatedAt(), row));
+            } else {
+                CustomerTombstone tombstone = tombstones.get(t++);
+                changes.add(new CustomerChangeDto(tombstone.getId().toString(), CustomerChangeType.DELETED, tombstone.getDeletedAt(), null));
+            }
+        }
+
+        boolean hasMore = r < rows.size() || t < tombstones.size();
+        ChangeToken next = from;
+        if (!changes.isEmpty()) {
+            CustomerChangeDto last = changes.get(changes.size() - 1);
+            next = new ChangeToken(last.getChangedAt(), UUID.fromString(last.getId()));
+        }
+        ChangeToken atHorizon = new ChangeToken(horizon, ChangeToken.START.id());
+        if (!hasMore && atHorizon.isAfter(next.at(), next.id())) {
+            // Everything stamped before the horizon has been returned.
+            next = atHorizon;
+        }
+        return new CustomerChangesResponseDto(changes, next.encode(), hasMore);
+    }
+
+    @Scheduled(
+            initialDelayString = "${cms.changes.purge-interval:PT1H}",
+            fixedDelayString = "${cms.changes.purge-interval:PT1H}"
+    )
+    public void purgeTombstones() {
+        // Each delete commits on its own shard.
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int purged = shards.parallel(shard -> tombstoneRepository.deleteOlderThan(cutoff)).stream().mapToInt(Integer::intValue).sum();
+        if (purged > 0) {
+            log.info("Purged {} customer tombstones older than {}", purged, retention);
+        }
+    }
+
+    private static ChangeToken tokenOf(CustomerTombstone tombstone) {
+        return new ChangeToken(tombstone.getDeletedAt(), tombstone.getId());
+    }
+}
@@ -0,0 +1,190 @@
+package com.nuwandev.cms.service;
+
+import com.nuwandev.cms.dto.CustomerChangesResponseDto;
+import com.nuwandev.cms.event.CustomerChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Live variant of the change feed over server-sent events. Each subscriber keeps its own token and is sent the
+ * next pages of {@link CustomerService#getChanges} as {@code changes} events whose SSE id is the new token, so a
+ * reconnecting client resumes through {@code Last-Event-ID}.
+ * <p>
+ * Subscribers are only polled while there is something to deliver: after a local write (for a settle window,
+ * until the change is visible to the feed), while a subscriber is catching up, and every
+ * {@code cms.changes.stream.idle-poll-interval} to pick up writes made through other instances.
+ * <p>
+ * The scheduled tick only hands work out: each subscriber is polled and written to on its own
+ * {@code change-stream} thread, with at most {@code cms.changes.stream.max-concurrent-polls} feed queries at a
+ * time. A subscriber whose previous send has been blocked for {@code cms.changes.stream.send-timeout} (a client
+ * that stopped reading) is dropped; it reconnects with its last event id. Keepalives carry the current token as
+ * their event id, so a reconnect after a quiet spell resumes from the feed's horizon.
+ */
+@Slf4j
+@Component
+public class CustomerChangeStream {
+
+    private static final int PAGE_SIZE = 500;
+    private static final int MAX_PAGES_PER_TICK = 10;
+
+    private final CustomerService customerService;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // A client that stopped reading blocks one of these threads until it is dropped, never the shared scheduler.
+    private final ExecutorService workers = Executors.newCachedThreadPool(Thread.ofPlatform().name("change-stream-", 0).daemon().factory());
+    private final Semaphore polls;
+    private final long sendTimeoutNanos;
+    private final long timeoutMillis;
+    private final long activeWindowNanos;
+    private final long idlePollNanos;
+    private final long heartbeatNanos;
+    private volatile long lastLocalChange = System.nanoTime();
+    private long lastPoll;
+
+    public CustomerChangeStream(
+            CustomerService customerService,
+            @Value("${cms.changes.stream.timeout:PT30M}") Duration timeout,
+            @Value("${cms.changes.settle-window:PT5S}") Duration settleWindow,
+            @Value("${cms.changes.stream.poll-interval:PT1S}") Duration pollInterval,
+            @Value("${cms.changes.stream.idle-poll-interval:PT15S}") Duration idlePollInterval,
+            @Value("${cms.changes.stream.heartbeat:PT20S}") Duration heartbeat,
+            @Value("${cms.changes.stream.send-timeout:PT10S}") Duration sendTimeout,
+            @Value("${cms.changes.stream.max-concurrent-polls:4}") int maxConcurrentPolls
+    ) {
+        this.customerService = customerService;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.polls = new Semaphore(maxConcurrentPolls);
+        this.timeoutMillis = timeout.toMillis();
+        this.activeWindowNanos = settleWindow.plus(pollInterval).toNanos();
+        this.idlePollNanos = idlePollInterval.toNanos();
+        this.heartbeatNanos = heartbeat.toNanos();
+    }
+
+    public SseEmitter subscribe(String since) {
+        // Fail fast on a bad or expired token, before the response is committed as an event stream.
+        customerService.getChanges(since, 1);
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        lastLocalChange = System.nanoTime();
+    }
+
+    @Scheduled(fixedDelayString = "${cms.changes.stream.poll-interval:PT1S}")
+    public void push() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        boolean pollAll = now - lastLocalChange <= activeWindowNanos || now - lastPoll >= idlePollNanos;
+        if (pollAll) {
+            lastPoll = now;
+        }
+        for (Subscriber subscriber : subscribers) {
+            long busySince = subscriber.busySince;
+            if (busySince != 0) {
+                if (now - busySince >= sendTimeoutNanos) {
+                    drop(subscriber, new IOException("Change stream send blocked for over " + Duration.ofNanos(sendTimeoutNanos)));
+                }
+                continue;
+            }
+            boolean poll = pollAll || subscriber.catchingUp;
+            boolean heartbeat = now - subscriber.lastSent >= heartbeatNanos;
+            if (poll || heartbeat) {
+                subscriber.busySince = now;
+                workers.execute(() -> serve(subscriber, poll, heartbeat));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    private void serve(Subscriber subscriber, boolean poll, boolean heartbeat) {
+        try {
+            if (poll) {
+                deliver(subscriber);
+            }
+            if (heartbeat) {
+                SseEmitter.SseEventBuilder keepalive = SseEmitter.event().comment("keepalive");
+                if (subscriber.token != null) {
+                    keepalive.id(subscriber.token);
+                }
+                subscriber.emitter.send(keepalive);
+                subscriber.lastSent = System.nanoTime();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Client went away or its token expired; it reconnects with its last event id.
+            drop(subscriber, e);
+        } finally {
+            subscriber.busySince = 0;
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        if (subscribers.remove(subscriber)) {
+            log.debug("Dropping change stream subscriber", cause);
+            subscriber.emitter.completeWithError(cause);
+        }
+    }
+
+    private void deliver(Subscriber subscriber) throws IOException {
+        for (int pages = 0; pages < MAX_PAGES_PER_TICK; pages++) {
+            CustomerChangesResponseDto page;
+            polls.acquireUninterruptibly();
+            try {
+                page = customerService.getChanges(subscriber.token, PAGE_SIZE);
+            } finally {
+                polls.release();
+            }
+            subscriber.catchingUp = Boolean.TRUE.equals(page.getHasMore());
+            if (page.getChanges().isEmpty()) {
+                // Nothing to send, but the token moves up to the horizon; the next keepalive carries it.
+                subscriber.token = page.getNextToken();
+                return;
+            }
+            subscriber.emitter.send(SseEmitter.event().name("changes").id(page.getNextToken()).data(page));
+            subscriber.token = page.getNextToken();
+            subscriber.lastSent = System.nanoTime();
+            if (!subscriber.catchingUp) {
+                return;
+            }
+        }
+    }
+
+    /** Served by one worker at a time; the tick reads the volatile fields to decide what to hand out next. */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private volatile String token;
+        private volatile boolean catchingUp = true;
+        private volatile long lastSent = System.nanoTime();
+        private volatile long busySince;
+
+        private Subscriber(SseEmitter emitter, String token) {
+            this.emitter = emitter;
+            this.token = token;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.nuwandev.cms.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.nuwandev.cms.repository.CustomerRepository;
+import com.nuwandev.cms.shard.ShardContext;
+import com.nuwandev.cms.shard.Shards;
+import com.nuwandev.cms.specification.CustomerSpecification;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves {@code count=estimate} listings without a {@code COUNT(*)} on the request path.
+ * <p>
+ * The unfiltered count of each shard is recounted in the background every {@code cms.customers.count.max-staleness}.
+ * Search terms are counted the first time they are asked for and kept in a bounded cache
+ * ({@code cms.customers.count.max-cached-searches}, least useful terms evicted first); a term read after
+ * {@code max-staleness} gets its cached count while it is recounted in the background. A term nobody asked for
+ * in twice that time is counted afresh on the caller's thread.
+ */
+@Slf4j
+@Component
+public class CustomerCountEstimator {
+
+    private final CustomerRepository customerRepository;
+    private final Shards shards;
+    private final Map<Integer, Long> totals = new ConcurrentHashMap<>();
+    // COUNT(*) blocks on the database, so refreshes get their own thread rather than the common pool.
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("count-refresh").daemon().factory());
+    private final LoadingCache<TermKey, Long> termCounts;
+
+    public CustomerCountEstimator(
+            CustomerRepository customerRepository,
+            Shards shards,
+            MeterRegistry meterRegistry,
+            @Value("${cms.customers.count.max-staleness:PT30S}") Duration maxStaleness,
+            @Value("${cms.customers.count.max-cached-searches:1000}") long maxEntries
+    ) {
+        this.customerRepository = customerRepository;
+        this.shards = shards;
+        this.termCounts = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .refreshAfterWrite(maxStaleness)
+                .expireAfterWrite(maxStaleness.multipliedBy(2))
+                .executor(refresher)
+                .recordStats()
+                .build(key -> shards.on(key.shard(), () -> customerRepository.count(CustomerSpecification.search(key.term()))));
+        CaffeineCacheMetrics.monitor(meterRegistry, termCounts, "customer-counts");
+    }
+
+    /** Estimated number of customers on the current shard that {@code search} finds (all of them when blank). */
+    public long estimate(String search) {
+        // Each shard counts only its own rows.
+        Integer current = ShardContext.current();
+        int shard = current == null ? 0 : current;
+        if (search == null || search.isBlank()) {
+            Long total = totals.get(shard);
+            if (total == null) {
+                // Before the first background count has finished.
+                total = customerRepository.count(CustomerSpecification.all());
+                totals.putIfAbsent(shard, total);
+            }
+            return total;
+        }
+        return termCounts.get(new TermKey(shard, search.toLowerCase(Locale.ROOT)));
+    }
+
+    @Scheduled(fixedDelayString = "${cms.customers.count.max-staleness:PT30S}")
+    public void refreshTotals() {
+        try {
+            shards.forEach(shard -> totals.put(shard, customerRepository.count(CustomerSpecification.all())));
+        } catch (RuntimeException e) {
+            log.warn("Customer count refresh failed, keeping the previous counts", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    /** Search matching is case-insensitive, so terms differing only in case share one count. */
+    private record TermKey(int shard, String term) {
+    }
+}
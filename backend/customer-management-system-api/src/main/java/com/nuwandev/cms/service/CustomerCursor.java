@@ -0,0 +1,78 @@
+package com.nuwandev.cms.service;
+
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.enums.CustomerSortField;
+import com.nuwandev.cms.enums.SortDirection;
+import com.nuwandev.cms.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position: the sort key and id of the row a page starts after (or ends before).
+ * The sort field and direction are embedded so a cursor cannot be replayed against a different ordering.
+ */
+record CustomerCursor(CustomerSortField sort, SortDirection order, boolean backward, UUID id, Comparable<?> value) {
+
+    private static final String SEPARATOR = "|";
+
+    static CustomerCursor after(CustomerResponseDto row, CustomerSortField sort, SortDirection order) {
+        return new CustomerCursor(sort, order, false, UUID.fromString(row.getId()), sortValue(row, sort));
+    }
+
+    static CustomerCursor before(CustomerResponseDto row, CustomerSortField sort, SortDirection order) {
+        return new CustomerCursor(sort, order, true, UUID.fromString(row.getId()), sortValue(row, sort));
+    }
+
+    static Comparable<?> sortValue(CustomerResponseDto row, CustomerSortField sort) {
+        return switch (sort) {
+            case FIRST_NAME -> row.getFirstName();
+            case LAST_NAME -> row.getLastName();
+            case EMAIL -> row.getEmail();
+            case CREATED_AT -> row.getCreatedAt();
+        };
+    }
+
+    String encode() {
+        String raw = String.join(SEPARATOR, sort.name(), order.name(), backward ? "B" : "A", id.toString(), String.valueOf(value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static CustomerCursor decode(String token, CustomerSortField sort, SortDirection order) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 5);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        if (parts.length != 5) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        if (!sort.name().equals(parts[0]) || !order.name().equals(parts[1])) {
+            throw new InvalidCursorException("Cursor was issued for a different sort or order");
+        }
+        return new CustomerCursor(sort, order, "B".equals(parts[2]), parseId(parts[3]), parseValue(sort, parts[4]));
+    }
+
+    private static UUID parseId(String raw) {
+        try {
+            return UUID.fromString(raw);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    private static Comparable<?> parseValue(CustomerSortField sort, String raw) {
+        if (sort != CustomerSortField.CREATED_AT) {
+            return raw;
+        }
+        try {
+            return LocalDateTime.parse(raw);
+        } catch (DateTimeParseException ex) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.nuwandev.cms.service;
+
+import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.domain.UuidV7;
+import com.nuwandev.cms.dto.CustomerCreateRequestDto;
+import com.nuwandev.cms.dto.CustomerImportErrorDto;
+import com.nuwandev.cms.dto.CustomerImportResultDto;
+import com.nuwandev.cms.enums.DataFormat;
+import com.nuwandev.cms.event.CustomerChangedEvent;
+import com.nuwandev.cms.mapper.CustomerCsvMapper;
+import com.nuwandev.cms.mapper.CustomerMapper;
+import com.nuwandev.cms.repository.CustomerRepository;
+import com.nuwandev.cms.search.CustomerSearchIndexer;
+import com.nuwandev.cms.shard.ShardEmailDirectory;
+import com.nuwandev.cms.shard.Shards;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Streams NDJSON or CSV customers into the database in fixed-size batches.
+ * <p>
+ * Each batch runs in its own transaction: one {@code IN} query finds emails that already exist, the remaining rows
+ * are persisted and flushed as JDBC batches, and the persistence context is cleared, so heap use depends on the
+ * batch size rather than on the size of the upload. Rows that fail parsing, validation or the duplicate check are
+ * reported individually; only the first {@code cms.import.max-reported-errors} are kept in the report.
+ * <p>
+ * When sharded, the duplicate check and reservation go through the {@link ShardEmailDirectory} and each batch is
+ * split by shard into one transaction per shard, run in parallel. A shard whose part fails releases its rows'
+ * reservations and reports them; the other shards' parts stay imported.
+ */
+@Component
+public class CustomerImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerImporter.class);
+
+    private final CustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+    private final CustomerSearchIndexer searchIndexer;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Shards shards;
+    private final ShardEmailDirectory directory;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CustomerImporter(
+            CustomerRepository customerRepository,
+            CustomerMapper customerMapper,
+            CustomerSearchIndexer searchIndexer,
+            Validator validator,
+            JsonMapper jsonMapper,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            Shards shards,
+            ObjectProvider<ShardEmailDirectory> directory,
+            @Value("${cms.import.batch-size:1000}") int batchSize,
+            @Value("${cms.import.max-reported-errors:1000}") int maxReportedErrors
+    ) {
+        this.customerRepository = customerRepository;
+        this.customerMapper = customerMapper;
+        this.searchIndexer = searchIndexer;
+        this.validator = validator;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.shards = shards;
+        this.directory = directory.getIfAvailable();
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public CustomerImportResultDto importCustomers(InputStream input, DataFormat format) throws IOException {
+        long started = System.nanoTime();
+        Report report = new Report();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Map<String, Integer> csvColumns = format == DataFormat.CSV ? readCsvHeader(reader) : null;
+
+        List<Row> batch = new ArrayList<>(batchSize);
+        long rowNumber = 0;
+        String line;
+        while ((line = csvColumns != null ? CustomerCsvMapper.readRecord(reader) : reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            report.total++;
+
+            CustomerCreateRequestDto dto;
+            try {
+                dto = csvColumns != null
+                        ? CustomerCsvMapper.toCreateRequest(line, csvColumns)
+                        : jsonMapper.readValue(line, CustomerCreateRequestDto.class);
+            } catch (RuntimeException ex) {
+                report.fail(rowNumber, "Unreadable row: " + ex.getMessage());
+                continue;
+            }
+
+            Set<ConstraintViolation<CustomerCreateRequestDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                report.fail(rowNumber, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+
+            batch.add(new Row(rowNumber, dto));
+            if (batch.size() == batchSize) {
+                writeBatch(batch, report);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, report);
+        }
+
+        long durationMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        double rowsPerSecond = report.total * 1000.0 / durationMs;
+        log.info("Imported {} of {} customers in {} ms ({} rows/s)", report.imported, report.total, durationMs, Math.round(rowsPerSecond));
+
+        return new CustomerImportResultDto(
+                report.total,
+                report.imported,
+                report.failed,
+                durationMs,
+                rowsPerSecond,
+                report.errors,
+                report.failed > report.errors.size()
+        );
+    }
+
+    private Map<String, Integer> readCsvHeader(BufferedReader reader) throws IOException {
+        String header = CustomerCsvMapper.readRecord(reader);
+        return header == null ? Map.of() : CustomerCsvMapper.parseHeader(header);
+    }
+
+    private void writeBatch(List<Row> rows, Report report) {
+        if (directory != null) {
+            writeShardedBatch(rows, report);
+            return;
+        }
+
+        List<Placement> accepted = new ArrayList<>(rows.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<String> emails = rows.stream().map(Row::emailKey).collect(Collectors.toSet());
+                Set<String> taken = customerRepository.findExistingEmails(emails).stream()
+                        .map(Customer::normalizeEmail)
+                        .collect(Collectors.toCollection(HashSet::new));
+
+                for (Row row : rows) {
+                    // add() doubles as the in-batch duplicate check.
+                    if (!taken.add(row.emailKey())) {
+                        report.fail(row.number(), "Customer with email " + row.dto().getEmail() + " already exists");
+                        continue;
+                    }
+                    accepted.add(new Placement(row, null));
+                }
+                persist(accepted);
+            });
+            report.imported += accepted.size();
+        } catch (RuntimeException ex) {
+            log.warn("Import batch starting at row {} failed", rows.get(0).number(), ex);
+            for (Placement placement : accepted) {
+                report.fail(placement.row().number(), "Batch rejected by the database: " + ex.getMessage());
+            }
+        }
+    }
+
+    private void writeShardedBatch(List<Row> rows, Report report) {
+        Set<String> taken = new HashSet<>(directory.findExisting(rows.stream().map(Row::emailKey).toList()));
+        Map<String, UUID> reservations = new HashMap<>();
+        Map<Integer, List<Placement>> byShard = new HashMap<>();
+        for (Row row : rows) {
+            if (!taken.add(row.emailKey())) {
+                report.fail(row.number(), "Customer with email " + row.dto().getEmail() + " already exists");
+                continue;
+            }
+            UUID id = UuidV7.next();
+            reservations.put(row.emailKey(), id);
+            byShard.computeIfAbsent(shards.shardOf(id), shard -> new ArrayList<>()).add(new Placement(row, id));
+        }
+        if (reservations.isEmpty()) {
+            return;
+        }
+
+        try {
+            directory.reserveAll(reservations);
+        } catch (RuntimeException ex) {
+            // Another writer took one of the emails since the check; the batch fails as a whole.
+            log.warn("Import batch starting at row {} failed to reserve emails", rows.get(0).number(), ex);
+            byShard.values().forEach(placements -> placements.forEach(placement ->
+                    report.fail(placement.row().number(), "Batch rejected by the database: " + ex.getMessage())));
+            return;
+        }
+
+        Map<Integer, RuntimeException> failures = shards.parallel(byShard.keySet(), shard -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(byShard.get(shard)));
+                return null;
+            } catch (RuntimeException ex) {
+                return ex;
+            }
+        });
+        failures.forEach((shard, ex) -> {
+            List<Placement> placements = byShard.get(shard);
+            if (ex == null) {
+                report.imported += placements.size();
+                return;
+            }
+            log.warn("Import batch starting at row {} failed on shard {}", rows.get(0).number(), shard, ex);
+            Map<String, UUID> released = new HashMap<>();
+            for (Placement placement : placements) {
+                released.put(placement.row().emailKey(), placement.id());
+                report.fail(placement.row().number(), "Batch rejected by the database: " + ex.getMessage());
+            }
+            directory.releaseAll(released);
+        });
+    }
+
+    /** Persists, indexes and announces the rows in the current transaction, then flushes and clears. */
+    private void persist(List<Placement> placements) {
+        for (Placement placement : placements) {
+            Customer customer = customerMapper.toEntity(placement.row().dto());
+            customer.setId(placement.id());
+            entityManager.persist(customer);
+            searchIndexer.index(customer);
+            eventPublisher.publishEvent(CustomerChangedEvent.created(customerMapper.toDto(customer)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private record Row(long number, CustomerCreateRequestDto dto) {
+        String emailKey() {
+            return Customer.normalizeEmail(dto.getEmail());
+        }
+    }
+
+    /** A row and the id it is stored under; null to let the entity assign one on insert. */
+    private record Placement(Row row, UUID id) {
+    }
+
+    private final class Report {
+        private long total;
+        private long imported;
+        private long failed;
+        private final List<CustomerImportErrorDto> errors = new ArrayList<>();
+
+        private void fail(long row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new CustomerImportErrorDto(row, message));
+            }
+        }
+    }
+}
@@ -1,12 +1,29 @@
 package com.nuwandev.cms.service;
 
+import com.nuwandev.cms.dto.CustomerBatchResponseDto;
+import com.nuwandev.cms.dto.CustomerBatchUpdateItemDto;
+import com.nuwandev.cms.dto.CustomerChangesResponseDto;
 import com.nuwandev.cms.dto.CustomerCreateRequestDto;
+import com.nuwandev.cms.dto.CustomerCursorPageResponseDto;
+import com.nuwandev.cms.dto.CustomerDedupeRunDto;
+import com.nuwandev.cms.dto.CustomerDuplicatesResponseDto;
+import com.nuwandev.cms.dto.CustomerImportResultDto;
 import com.nuwandev.cms.dto.CustomerPageResponseDto;
 import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.dto.CustomerStatsDto;
+import com.nuwandev.cms.dto.CustomerSuggestionDto;
 import com.nuwandev.cms.dto.CustomerUpdateRequestDto;
+import com.nuwandev.cms.enums.CountMode;
 import com.nuwandev.cms.enums.CustomerSortField;
+import com.nuwandev.cms.enums.DataFormat;
+import com.nuwandev.cms.enums.DedupeMode;
 import com.nuwandev.cms.enums.SortDirection;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
 public interface CustomerService {
     CustomerResponseDto getCustomerById(String id);
 
@@ -14,7 +31,48 @@ public interface CustomerService {
 
     CustomerResponseDto updateCustomer(String id, CustomerUpdateRequestDto dto);
 
+    /**
+     * Updates the customer only if it is still at {@code expectedVersion}; otherwise throws
+     * {@link com.nuwandev.cms.exception.CustomerVersionMismatchException}.
+     */
+    CustomerResponseDto updateCustomerIfVersion(String id, CustomerUpdateRequestDto dto, long expectedVersion);
+
     void deleteCustomer(String id);
 
-    CustomerPageResponseDto getCustomers(Integer page, Integer size, CustomerSortField sort, SortDirection order, String search);
+    CustomerBatchResponseDto getCustomersByIds(List<String> ids);
+
+    CustomerBatchResponseDto updateCustomers(List<CustomerBatchUpdateItemDto> items);
+
+    CustomerBatchResponseDto deleteCustomers(List<String> ids);
+
+    CustomerImportResultDto importCustomers(InputStream input, DataFormat format) throws IOException;
+
+    long exportCustomers(CustomerSortField sort, SortDirection order, String search, DataFormat format, OutputStream output) throws IOException;
+
+    /**
+     * Creates, updates and deletes after {@code since} (a token from a previous call; null to start from the
+     * beginning), oldest first, at most {@code limit} of them.
+     */
+    CustomerChangesResponseDto getChanges(String since, int limit);
+
+    List<CustomerResponseDto> searchCustomers(String query, Integer limit);
+
+    List<CustomerSuggestionDto> suggestCustomers(String prefix, Integer limit);
+
+    CustomerStatsDto getCustomerStats();
+
+    /**
+     * Starts a duplicate detection run in the background; an incremental run only rescores customers changed since
+     * the last completed run. Throws {@link com.nuwandev.cms.exception.DedupeRunInProgressException} while one runs.
+     */
+    CustomerDedupeRunDto startDuplicateDetection(DedupeMode mode);
+
+    /** The running or last finished duplicate detection run, or null if there has been none. */
+    CustomerDedupeRunDto getLatestDuplicateDetectionRun();
+
+    CustomerDuplicatesResponseDto getDuplicateClusters(int page, int size);
+
+    CustomerPageResponseDto getCustomers(Integer page, Integer size, CustomerSortField sort, SortDirection order, String search, CountMode count);
+
+    CustomerCursorPageResponseDto getCustomersByCursor(String cursor, Integer size, CustomerSortField sort, SortDirection order, String search);
 }
\ No newline at end of file
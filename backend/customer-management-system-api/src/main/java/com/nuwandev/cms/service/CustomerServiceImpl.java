@@ -1,26 +1,69 @@
 package com.nuwandev.cms.service;
 
+import com.nuwandev.cms.cache.CustomerCache;
+import com.nuwandev.cms.dedupe.CustomerDedupeJob;
 import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.domain.CustomerTombstone;
+import com.nuwandev.cms.dto.CustomerBatchItemResultDto;
+import com.nuwandev.cms.dto.CustomerBatchResponseDto;
+import com.nuwandev.cms.dto.CustomerBatchUpdateItemDto;
+import com.nuwandev.cms.dto.CustomerChangesResponseDto;
 import com.nuwandev.cms.dto.CustomerCreateRequestDto;
+import com.nuwandev.cms.dto.CustomerCursorPageResponseDto;
+import com.nuwandev.cms.dto.CustomerDedupeRunDto;
+import com.nuwandev.cms.dto.CustomerDuplicatesResponseDto;
+import com.nuwandev.cms.dto.CustomerImportResultDto;
 import com.nuwandev.cms.dto.CustomerPageResponseDto;
 import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.dto.CustomerStatsDto;
+import com.nuwandev.cms.dto.CustomerSuggestionDto;
 import com.nuwandev.cms.dto.CustomerUpdateRequestDto;
+import com.nuwandev.cms.enums.CountMode;
 import com.nuwandev.cms.enums.CustomerSortField;
+import com.nuwandev.cms.enums.DataFormat;
+import com.nuwandev.cms.enums.DedupeMode;
 import com.nuwandev.cms.enums.SortDirection;
+import com.nuwandev.cms.event.CustomerChangedEvent;
 import com.nuwandev.cms.exception.CustomerAlreadyExistsException;
 import com.nuwandev.cms.exception.CustomerNotFoundException;
+import com.nuwandev.cms.exception.CustomerVersionMismatchException;
 import com.nuwandev.cms.mapper.CustomerMapper;
 import com.nuwandev.cms.repository.CustomerRepository;
+import com.nuwandev.cms.repository.CustomerSearchTokenRepository;
+import com.nuwandev.cms.repository.CustomerTombstoneRepository;
+import com.nuwandev.cms.search.CustomerSearchIndexer;
+import com.nuwandev.cms.search.CustomerSearchTokenizer;
+import com.nuwandev.cms.search.CustomerSuggestIndex;
 import com.nuwandev.cms.specification.CustomerSpecification;
-import jakarta.transaction.Transactional;
+import com.nuwandev.cms.stats.CustomerStats;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
 @Transactional
@@ -29,63 +72,417 @@ public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final CustomerCountEstimator countEstimator;
+    private final CustomerSearchIndexer searchIndexer;
+    private final CustomerSearchTokenRepository searchTokenRepository;
+    private final CustomerSuggestIndex suggestIndex;
+    private final CustomerStats customerStats;
+    private final CustomerCache customerCache;
+    private final CustomerImporter customerImporter;
+    private final CustomerExporter customerExporter;
+    private final CustomerChangeFeed customerChangeFeed;
+    private final CustomerDedupeJob customerDedupeJob;
+    private final CustomerTombstoneRepository tombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public CustomerResponseDto getCustomerById(String id) {
-        Customer customer = customerRepository.findById(id).orElseThrow(() -> new CustomerNotFoundException(id));
-        return customerMapper.toDto(customer);
+        // SUPPORTS: a cache hit must not open a transaction and take a pooled connection.
+        // Cache on the canonical form so writes, which key by the stored id, invalidate every spelling.
+        UUID uuid = parseId(id);
+        return customerCache.get(uuid.toString(), key ->
+                customerRepository.findDtoById(uuid).orElseThrow(() -> new CustomerNotFoundException(id)));
     }
 
     @Override
     public CustomerResponseDto createCustomer(CustomerCreateRequestDto dto) {
-        Customer existing = customerRepository.findByEmail(dto.getEmail());
+        return createCustomer(dto, null);
+    }
+
+    /**
+     * Creates the customer under {@code id}, or under a newly generated id when null. Sharding picks the id
+     * up front because the id decides which shard the row is written to.
+     */
+    public CustomerResponseDto createCustomer(CustomerCreateRequestDto dto, UUID id) {
+        Customer existing = customerRepository.findByEmail(Customer.normalizeEmail(dto.getEmail()));
         if (existing != null) throw new CustomerAlreadyExistsException(dto.getEmail());
 
         Customer customer = customerMapper.toEntity(dto);
+        customer.setId(id);
         Customer savedCustomer = customerRepository.save(customer);
+        searchIndexer.index(savedCustomer);
 
-        return customerMapper.toDto(savedCustomer);
+        CustomerResponseDto created = customerMapper.toDto(savedCustomer);
+        eventPublisher.publishEvent(CustomerChangedEvent.created(created));
+        return created;
     }
 
     @Override
     public CustomerResponseDto updateCustomer(String id, CustomerUpdateRequestDto dto) {
-        Customer customer = customerRepository.findById(id).orElseThrow(() -> new CustomerNotFoundException(id));
+        Customer customer = customerRepository.findById(parseId(id)).orElseThrow(() -> new CustomerNotFoundException(id));
+        CustomerResponseDto previous = customerMapper.toDto(customer);
+        boolean searchableChanged = !Objects.equals(customer.getFirstName(), dto.getFirstName())
+                || !Objects.equals(customer.getLastName(), dto.getLastName())
+                || !Objects.equals(customer.getPhone(), dto.getPhone());
         customer.setFirstName(dto.getFirstName());
         customer.setLastName(dto.getLastName());
         customer.setPhone(dto.getPhone());
         customer.setStatus(dto.getStatus());
-        Customer savedCustomer = customerRepository.save(customer);
-        return customerMapper.toDto(savedCustomer);
+        // Flush now so @PreUpdate stamps updatedAt before the DTO is cached and returned.
+        Customer savedCustomer = customerRepository.saveAndFlush(customer);
+        if (searchableChanged) {
+            searchIndexer.reindex(savedCustomer);
+        }
+
+        CustomerResponseDto updated = customerMapper.toDto(savedCustomer);
+        eventPublisher.publishEvent(CustomerChangedEvent.updated(previous, updated));
+        return updated;
+    }
+
+    @Override
+    public CustomerResponseDto updateCustomerIfVersion(String id, CustomerUpdateRequestDto dto, long expectedVersion) {
+        UUID uuid = parseId(id);
+        // The state being replaced, for the change event; the cache usually has exactly that version.
+        CustomerResponseDto previous = customerCache.getIfPresent(uuid.toString())
+                .filter(cached -> cached.getVersion() != null && cached.getVersion() == expectedVersion)
+                .orElseGet(() -> customerRepository.findDtoById(uuid).orElseThrow(() -> new CustomerNotFoundException(id)));
+        if (previous.getVersion() == null || previous.getVersion() != expectedVersion) {
+            throw new CustomerVersionMismatchException(id);
+        }
+
+        // The update is the version check: it only applies while the row is still at the version just read, so
+        // `previous` is exactly the state it replaces.
+        LocalDateTime updatedAt = LocalDateTime.now();
+        int updatedRows = customerRepository.updateIfVersion(uuid, expectedVersion, dto.getFirstName(), dto.getLastName(), dto.getPhone(), dto.getStatus(), updatedAt);
+        if (updatedRows == 0) {
+            if (!customerRepository.existsById(uuid)) {
+                throw new CustomerNotFoundException(id);
+            }
+            throw new CustomerVersionMismatchException(id);
+        }
+
+        CustomerResponseDto updated = new CustomerResponseDto(previous.getId(), dto.getFirstName(), dto.getLastName(), previous.getEmail(),
+                dto.getPhone(), dto.getStatus(), previous.getCreatedAt(), updatedAt, expectedVersion + 1);
+        boolean searchableChanged = !Objects.equals(previous.getFirstName(), updated.getFirstName())
+                || !Objects.equals(previous.getLastName(), updated.getLastName())
+                || !Objects.equals(previous.getPhone(), updated.getPhone());
+        if (searchableChanged) {
+            searchIndexer.reindex(customerMapper.toEntity(updated));
+        }
+
+        eventPublisher.publishEvent(CustomerChangedEvent.updated(previous, updated));
+        return updated;
     }
 
     @Override
     public void deleteCustomer(String id) {
-        customerRepository.findById(id).orElseThrow(() -> new CustomerNotFoundException(id));
-        customerRepository.deleteById(id);
+        Customer customer = customerRepository.findById(parseId(id)).orElseThrow(() -> new CustomerNotFoundException(id));
+        searchIndexer.remove(customer.getId());
+        customerRepository.delete(customer);
+        tombstoneRepository.save(new CustomerTombstone(customer.getId(), LocalDateTime.now()));
+        eventPublisher.publishEvent(CustomerChangedEvent.deleted(customerMapper.toDto(customer)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerBatchResponseDto getCustomersByIds(List<String> ids) {
+        Set<UUID> uuids = new HashSet<>();
+        for (String id : ids) {
+            tryParseId(id).ifPresent(uuids::add);
+        }
+        Map<UUID, CustomerResponseDto> found = new HashMap<>();
+        customerRepository.findDtosByIdIn(uuids).forEach(customer -> found.put(UUID.fromString(customer.getId()), customer));
+
+        List<CustomerBatchItemResultDto> results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            CustomerResponseDto customer = tryParseId(id).map(found::get).orElse(null);
+            results.add(customer == null ? notFound(id) : new CustomerBatchItemResultDto(id, HttpStatus.OK.value(), customer, null));
+        }
+        return toBatchResponse(results);
+    }
+
+    @Override
+    public CustomerBatchResponseDto updateCustomers(List<CustomerBatchUpdateItemDto> items) {
+        Map<String, Customer> found = findAllByIdAsMap(items.stream().map(CustomerBatchUpdateItemDto::getId).toList());
+
+        Map<UUID, CustomerResponseDto> previous = new HashMap<>();
+        List<Customer> reindex = new ArrayList<>();
+        for (CustomerBatchUpdateItemDto item : items) {
+            Customer customer = found.get(item.getId());
+            if (customer == null) {
+                continue;
+            }
+            CustomerUpdateRequestDto dto = item.getCustomer();
+            previous.putIfAbsent(customer.getId(), customerMapper.toDto(customer));
+            if (!Objects.equals(customer.getFirstName(), dto.getFirstName())
+                    || !Objects.equals(customer.getLastName(), dto.getLastName())
+                    || !Objects.equals(customer.getPhone(), dto.getPhone())) {
+                reindex.add(customer);
+            }
+            customer.setFirstName(dto.getFirstName());
+            customer.setLastName(dto.getLastName());
+            customer.setPhone(dto.getPhone());
+            customer.setStatus(dto.getStatus());
+        }
+
+        // Dirty entities are written as JDBC-batched UPDATEs in a single flush.
+        customerRepository.flush();
+        reindex.stream().distinct().forEach(searchIndexer::reindex);
+
+        List<CustomerBatchItemResultDto> results = new ArrayList<>(items.size());
+        for (CustomerBatchUpdateItemDto item : items) {
+            Customer customer = found.get(item.getId());
+            results.add(customer == null ? notFound(item.getId()) : new CustomerBatchItemResultDto(item.getId(), HttpStatus.OK.value(), customerMapper.toDto(customer), null));
+        }
+        found.values().stream().distinct().forEach(customer -> eventPublisher.publishEvent(
+                CustomerChangedEvent.updated(previous.get(customer.getId()), customerMapper.toDto(customer))));
+        return toBatchResponse(results);
+    }
+
+    @Override
+    public CustomerBatchResponseDto deleteCustomers(List<String> ids) {
+        Map<String, Customer> found = findAllByIdAsMap(ids);
+
+        if (!found.isEmpty()) {
+            List<Customer> customers = found.values().stream().distinct().toList();
+            List<UUID> foundIds = customers.stream().map(Customer::getId).toList();
+            searchIndexer.removeAll(foundIds);
+            customerRepository.deleteAllByIdInBatch(foundIds);
+            LocalDateTime deletedAt = LocalDateTime.now();
+            tombstoneRepository.saveAll(foundIds.stream().map(id -> new CustomerTombstone(id, deletedAt)).toList());
+            customers.forEach(customer -> eventPublisher.publishEvent(CustomerChangedEvent.deleted(customerMapper.toDto(customer))));
+        }
+
+        List<CustomerBatchItemResultDto> results = new ArrayList<>(ids.size());
+        Set<String> deleted = new HashSet<>();
+        for (String id : ids) {
+            boolean removedNow = found.containsKey(id) && deleted.add(id);
+            results.add(removedNow ? new CustomerBatchItemResultDto(id, HttpStatus.NO_CONTENT.value(), null, null) : notFound(id));
+        }
+        return toBatchResponse(results);
+    }
+
+    /**
+     * Loads the given ids with one {@code IN} query, keyed by their string form; malformed ids are simply absent.
+     */
+    private Map<String, Customer> findAllByIdAsMap(Collection<String> ids) {
+        Set<UUID> uuids = new HashSet<>();
+        for (String id : ids) {
+            tryParseId(id).ifPresent(uuids::add);
+        }
+        Map<UUID, Customer> byId = new HashMap<>();
+        customerRepository.findAllById(uuids).forEach(customer -> byId.put(customer.getId(), customer));
+
+        Map<String, Customer> found = new HashMap<>();
+        for (String id : ids) {
+            tryParseId(id).map(byId::get).ifPresent(customer -> found.put(id, customer));
+        }
+        return found;
+    }
+
+    private static UUID parseId(String id) {
+        return tryParseId(id).orElseThrow(() -> new CustomerNotFoundException(id));
+    }
+
+    private static Optional<UUID> tryParseId(String id) {
+        try {
+            return Optional.of(UUID.fromString(id));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private CustomerBatchItemResultDto notFound(String id) {
+        return new CustomerBatchItemResultDto(id, HttpStatus.NOT_FOUND.value(), null, new CustomerNotFoundException(id).getMessage());
+    }
+
+    private CustomerBatchResponseDto toBatchResponse(List<CustomerBatchItemResultDto> results) {
+        int failed = (int) results.stream().filter(result -> result.getStatus() >= 400).count();
+        return new CustomerBatchResponseDto(results, results.size() - failed, failed);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CustomerImportResultDto importCustomers(InputStream input, DataFormat format) throws IOException {
+        // Batches commit independently; one transaction around the whole stream would hold every row until the end.
+        return customerImporter.importCustomers(input, format);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCustomers(CustomerSortField sort, SortDirection order, String search, DataFormat format, OutputStream output) throws IOException {
+        // The transaction keeps the cursor open while rows are written out.
+        return customerExporter.export(sort, order, search, format, output);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerChangesResponseDto getChanges(String since, int limit) {
+        return customerChangeFeed.changesSince(since, limit);
+    }
+
+    /**
+     * The changes after {@code since} as of {@code now}, so that every shard scans up to the same horizon.
+     */
+    @Transactional(readOnly = true)
+    public CustomerChangesResponseDto getChanges(String since, int limit, LocalDateTime now) {
+        return customerChangeFeed.changesSince(since, limit, now);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CustomerSuggestionDto> suggestCustomers(String prefix, Integer limit) {
+        return suggestIndex.suggest(prefix, limit);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CustomerStatsDto getCustomerStats() {
+        return customerStats.snapshot();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CustomerDedupeRunDto startDuplicateDetection(DedupeMode mode) {
+        return customerDedupeJob.start(mode);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CustomerDedupeRunDto getLatestDuplicateDetectionRun() {
+        return customerDedupeJob.latest();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerDuplicatesResponseDto getDuplicateClusters(int page, int size) {
+        return customerDedupeJob.clusters(page, size, customerRepository::findDtosByIdIn);
     }
 
     @Override
-    public CustomerPageResponseDto getCustomers(Integer page, Integer size, CustomerSortField sort, SortDirection order, String search) {
+    @Transactional(readOnly = true)
+    public List<CustomerResponseDto> searchCustomers(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        Set<String> tokens = CustomerSearchTokenizer.queryTokens(query);
+        if (tokens.isEmpty()) {
+            // Shorter than a trigram: nothing to rank by, so a plain substring scan in id (creation) order.
+            return customerRepository.findProjected(CustomerSpecification.matches(query), Sort.by("id"), 0, limit);
+        }
+
+        // Over-fetch candidates: trigram hits can be false positives that the LIKE re-check drops.
+        List<UUID> rankedIds = searchTokenRepository.findRankedCustomerIds(tokens, tokens.size(), PageRequest.of(0, limit * 2));
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, CustomerResponseDto> matches = new HashMap<>();
+        customerRepository.findProjected(CustomerSpecification.idIn(rankedIds).and(CustomerSpecification.matches(query)), Sort.unsorted(), 0, rankedIds.size())
+                .forEach(customer -> matches.put(UUID.fromString(customer.getId()), customer));
+
+        return rankedIds.stream()
+                .map(matches::get)
+                .filter(Objects::nonNull)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerPageResponseDto getCustomers(Integer page, Integer size, CustomerSortField sort, SortDirection order, String search, CountMode count) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(order.toSpringDirection(), sort.getField()));
 
-        Page<Customer> customerPage;
+        Specification<Customer> spec = (search != null && !search.isBlank())
+                ? CustomerSpecification.search(search)
+                : CustomerSpecification.all();
+
+        if (count == CountMode.EXACT) {
+            List<CustomerResponseDto> content = customerRepository.findProjected(spec, pageable.getSort(), pageable.getOffset(), size);
+            // Skips the COUNT(*) when this page alone shows where the data ends.
+            Page<CustomerResponseDto> customerPage = PageableExecutionUtils.getPage(content, pageable, () -> customerRepository.count(spec));
 
-        if (search != null && !search.isBlank()) {
-            customerPage = customerRepository.findAll(CustomerSpecification.search(search), pageable);
-        } else {
-            customerPage = customerRepository.findAll(pageable);
+            return new CustomerPageResponseDto(
+                    content,
+                    customerPage.getNumber(),
+                    customerPage.getSize(),
+                    (int) customerPage.getTotalElements(),
+                    customerPage.getTotalPages(),
+                    customerPage.isFirst(),
+                    customerPage.isLast(),
+                    customerPage.hasNext()
+            );
         }
 
-        List<CustomerResponseDto> content = customerMapper.toDtoList(customerPage.getContent());
+        // One look-ahead row answers hasNext without a count query.
+        List<CustomerResponseDto> rows = customerRepository.findProjected(spec, pageable.getSort(), pageable.getOffset(), size + 1);
+        boolean hasNext = rows.size() > size;
+        List<CustomerResponseDto> content = hasNext ? rows.subList(0, size) : rows;
+
+        Integer totalElements = null;
+        Integer totalPages = null;
+        if (count == CountMode.ESTIMATE) {
+            // Keep a stale estimate consistent with what this page actually saw.
+            long seen = pageable.getOffset() + content.size() + (hasNext ? 1 : 0);
+            long total = Math.max(countEstimator.estimate(search), seen);
+            totalElements = (int) total;
+            totalPages = (int) ((total + size - 1) / size);
+        }
 
         return new CustomerPageResponseDto(
                 content,
-                customerPage.getNumber(),
-                customerPage.getSize(),
-                (int) customerPage.getTotalElements(),
-                customerPage.getTotalPages(),
-                customerPage.isFirst(),
-                customerPage.isLast()
+                page,
+                size,
+                totalElements,
+                totalPages,
+                page == 0,
+                !hasNext,
+                hasNext
         );
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerCursorPageResponseDto getCustomersByCursor(String cursor, Integer size, CustomerSortField sort, SortDirection order, String search) {
+        CustomerCursor position = (cursor == null || cursor.isBlank()) ? null : CustomerCursor.decode(cursor, sort, order);
+        boolean backward = position != null && position.backward();
+
+        // Paging backwards walks the index in the opposite direction and flips the rows afterwards.
+        boolean ascending = (order == SortDirection.ASC) != backward;
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort keysetSort = Sort.by(direction, sort.getField()).and(Sort.by(direction, "id"));
+
+        Specification<Customer> spec = (search != null && !search.isBlank())
+                ? CustomerSpecification.search(search)
+                : CustomerSpecification.all();
+        if (position != null) {
+            spec = spec.and(CustomerSpecification.keysetAfter(sort.getField(), position.value(), position.id(), ascending));
+        }
+
+        // One extra row tells us whether another page exists without running a count query.
+        List<CustomerResponseDto> rows = customerRepository.findProjected(spec, keysetSort, 0, size + 1);
+        boolean hasMore = rows.size() > size;
+
+        List<CustomerResponseDto> content = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        if (backward) {
+            Collections.reverse(content);
+        }
+
+        boolean hasNext = backward || hasMore;
+        boolean hasPrevious = backward ? hasMore : position != null;
+
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!content.isEmpty()) {
+            if (hasNext) {
+                nextCursor = CustomerCursor.after(content.get(content.size() - 1), sort, order).encode();
+            }
+            if (hasPrevious) {
+                prevCursor = CustomerCursor.before(content.get(0), sort, order).encode();
+            }
+        }
+
+        return new CustomerCursorPageResponseDto(content, size, nextCursor, prevCursor, hasNext, hasPrevious);
+    }
 }
@@ -0,0 +1,424 @@
+package com.nuwandev.cms.service;
+
+import com.nuwandev.cms.dedupe.CustomerDedupeJob;
+import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.domain.UuidV7;
+import com.nuwandev.cms.dto.CustomerBatchItemResultDto;
+import com.nuwandev.cms.dto.CustomerBatchResponseDto;
+import com.nuwandev.cms.dto.CustomerBatchUpdateItemDto;
+import com.nuwandev.cms.dto.CustomerChangeDto;
+import com.nuwandev.cms.dto.CustomerChangesResponseDto;
+import com.nuwandev.cms.dto.CustomerCreateRequestDto;
+import com.nuwandev.cms.dto.CustomerCursorPageResponseDto;
+import com.nuwandev.cms.dto.CustomerDedupeRunDto;
+import com.nuwandev.cms.dto.CustomerDuplicatesResponseDto;
+import com.nuwandev.cms.dto.CustomerImportResultDto;
+import com.nuwandev.cms.dto.CustomerPageResponseDto;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.dto.CustomerStatsDto;
+import com.nuwandev.cms.dto.CustomerSuggestionDto;
+import com.nuwandev.cms.dto.CustomerUpdateRequestDto;
+import com.nuwandev.cms.enums.CountMode;
+import com.nuwandev.cms.enums.CustomerSortField;
+import com.nuwandev.cms.enums.DataFormat;
+import com.nuwandev.cms.enums.DedupeMode;
+import com.nuwandev.cms.enums.SortDirection;
+import com.nuwandev.cms.exception.PageTooDeepException;
+import com.nuwandev.cms.mapper.CustomerMapper;
+import com.nuwandev.cms.search.CustomerSearchTokenizer;
+import com.nuwandev.cms.shard.ShardEmailDirectory;
+import com.nuwandev.cms.shard.ShardSortKeys;
+import com.nuwandev.cms.shard.Shards;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link CustomerService} over hash-partitioned shards (see {@link Shards}). Calls that name a customer run on
+ * that customer's shard; listings, search, batch calls and the change feed fan out to every shard in parallel
+ * and merge the results in the order a single database would have returned them.
+ * <p>
+ * Each shard call goes through the transactional {@link CustomerServiceImpl}, so each is its own transaction on
+ * its own shard. A write that spans shards (a batch) is therefore atomic per shard, not as a whole.
+ */
+public class ShardedCustomerService implements CustomerService {
+
+    private static final int EXPORT_PAGE_SIZE = 1000;
+
+    private final CustomerServiceImpl delegate;
+    private final Shards shards;
+    private final ShardEmailDirectory directory;
+    private final ShardSortKeys sortKeys;
+    private final CustomerExporter exporter;
+    private final CustomerMapper customerMapper;
+    private final CustomerDedupeJob dedupeJob;
+    private final int maxOffsetRows;
+
+    public ShardedCustomerService(
+            CustomerServiceImpl delegate,
+            Shards shards,
+            ShardEmailDirectory directory,
+            ShardSortKeys sortKeys,
+            CustomerExporter exporter,
+            CustomerMapper customerMapper,
+            CustomerDedupeJob dedupeJob,
+            int maxOffsetRows
+    ) {
+        this.delegate = delegate;
+        this.shards = shards;
+        this.directory = directory;
+        this.sortKeys = sortKeys;
+        this.exporter = exporter;
+        this.customerMapper = customerMapper;
+        this.dedupeJob = dedupeJob;
+        this.maxOffsetRows = maxOffsetRows;
+    }
+
+    @Override
+    public CustomerResponseDto getCustomerById(String id) {
+        return shards.on(shardOf(id), () -> delegate.getCustomerById(id));
+    }
+
+    @Override
+    public CustomerResponseDto createCustomer(CustomerCreateRequestDto dto) {
+        // The id decides the shard, so it is assigned here rather than on insert.
+        UUID id = UuidV7.next();
+        directory.reserve(dto.getEmail(), id);
+        try {
+            return shards.on(shards.shardOf(id), () -> delegate.createCustomer(dto, id));
+        } catch (RuntimeException e) {
+            directory.release(dto.getEmail(), id);
+            throw e;
+        }
+    }
+
+    @Override
+    public CustomerResponseDto updateCustomer(String id, CustomerUpdateRequestDto dto) {
+        return shards.on(shardOf(id), () -> delegate.updateCustomer(id, dto));
+    }
+
+    @Override
+    public CustomerResponseDto updateCustomerIfVersion(String id, CustomerUpdateRequestDto dto, long expectedVersion) {
+        return shards.on(shardOf(id), () -> delegate.updateCustomerIfVersion(id, dto, expectedVersion));
+    }
+
+    @Override
+    public void deleteCustomer(String id) {
+        shards.on(shardOf(id), () -> {
+            CustomerResponseDto customer = delegate.getCustomerById(id);
+            delegate.deleteCustomer(id);
+            directory.release(customer.getEmail(), UUID.fromString(customer.getId()));
+            return null;
+        });
+    }
+
+    @Override
+    public CustomerBatchResponseDto getCustomersByIds(List<String> ids) {
+        return scatterBatch(ids, Function.identity(), (shard, subset) -> delegate.getCustomersByIds(subset));
+    }
+
+    @Override
+    public CustomerBatchResponseDto updateCustomers(List<CustomerBatchUpdateItemDto> items) {
+        return scatterBatch(items, CustomerBatchUpdateItemDto::getId, (shard, subset) -> delegate.updateCustomers(subset));
+    }
+
+    @Override
+    public CustomerBatchResponseDto deleteCustomers(List<String> ids) {
+        return scatterBatch(ids, Function.identity(), (shard, subset) -> {
+            Map<String, String> emails = new HashMap<>();
+            delegate.getCustomersByIds(subset).getResults().stream()
+                    .filter(result -> result.getCustomer() != null)
+                    .forEach(result -> emails.put(result.getCustomer().getId(), result.getCustomer().getEmail()));
+
+            CustomerBatchResponseDto response = delegate.deleteCustomers(subset);
+            Map<String, UUID> released = new HashMap<>();
+            response.getResults().stream()
+                    .filter(result -> result.getStatus() < 400)
+                    .map(result -> UUID.fromString(result.getId()))
+                    .forEach(id -> released.put(emails.get(id.toString()), id));
+            released.remove(null);
+            directory.releaseAll(released);
+            return response;
+        });
+    }
+
+    @Override
+    public CustomerImportResultDto importCustomers(InputStream input, DataFormat format) throws IOException {
+        // The importer reserves emails and routes each batch to its shards itself.
+        return delegate.importCustomers(input, format);
+    }
+
+    @Override
+    public long exportCustomers(CustomerSortField sort, SortDirection order, String search, DataFormat format, OutputStream output) throws IOException {
+        // No shard can hold a cursor open for the whole merge, so the export walks merged keyset pages instead.
+        Iterator<CustomerResponseDto> rows = new Iterator<>() {
+            private List<CustomerResponseDto> page = List.of();
+            private int next;
+            private String cursor;
+            private boolean more = true;
+
+            @Override
+            public boolean hasNext() {
+                if (next < page.size()) {
+                    return true;
+                }
+                if (!more) {
+                    return false;
+                }
+                CustomerCursorPageResponseDto merged = getCustomersByCursor(cursor, EXPORT_PAGE_SIZE, sort, order, search);
+                page = merged.getContent();
+                next = 0;
+                cursor = merged.getNextCursor();
+                more = Boolean.TRUE.equals(merged.getHasNext());
+                return !page.isEmpty();
+            }
+
+            @Override
+            public CustomerResponseDto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(next++);
+            }
+        };
+        return exporter.export(rows, format, output);
+    }
+
+    @Override
+    public CustomerChangesResponseDto getChanges(String since, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<CustomerChangesResponseDto> pages = shards.parallel(shard -> delegate.getChanges(since, limit, now));
+
+        // Every shard orders its changes by (changedAt, id) after the same token, so the first `limit` of the
+        // merge are exactly the next `limit` changes overall.
+        List<CustomerChangeDto> all = new ArrayList<>();
+        boolean anyMore = false;
+        for (CustomerChangesResponseDto page : pages) {
+            all.addAll(page.getChanges());
+            anyMore |= Boolean.TRUE.equals(page.getHasMore());
+        }
+        all.sort(Comparator.comparing(CustomerChangeDto::getChangedAt)
+                .thenComparing(change -> UUID.fromString(change.getId()), ShardedCustomerService::compareIdBytes));
+
+        if (!anyMore && all.size() <= limit) {
+            // Every shard returned all it had before the shared horizon, so all their tokens are that horizon.
+            return new CustomerChangesResponseDto(all, pages.get(0).getNextToken(), false);
+        }
+        List<CustomerChangeDto> changes = all.size() > limit ? all.subList(0, limit) : all;
+        CustomerChangeDto last = changes.get(changes.size() - 1);
+        String nextToken = new ChangeToken(last.getChangedAt(), UUID.fromString(last.getId())).encode();
+        return new CustomerChangesResponseDto(new ArrayList<>(changes), nextToken, anyMore || all.size() > limit);
+    }
+
+    @Override
+    public List<CustomerResponseDto> searchCustomers(String query, Integer limit) {
+        Set<String> queryTokens = CustomerSearchTokenizer.queryTokens(query);
+        List<CustomerResponseDto> all = new ArrayList<>();
+        shards.parallel(shard -> delegate.searchCustomers(query, limit)).forEach(all::addAll);
+
+        // Re-derive the score each shard ranked by (summed weights of the matched tokens) to merge the lists.
+        Map<String, Integer> scores = new HashMap<>();
+        for (CustomerResponseDto customer : all) {
+            Customer entity = customerMapper.toEntity(customer);
+            int score = CustomerSearchTokenizer.indexTokens(entity).entrySet().stream()
+                    .filter(token -> queryTokens.contains(token.getKey()))
+                    .mapToInt(Map.Entry::getValue)
+                    .sum();
+            scores.put(customer.getId(), score);
+        }
+        all.sort(Comparator.<CustomerResponseDto>comparingInt(customer -> scores.get(customer.getId())).reversed()
+                .thenComparing(customer -> UUID.fromString(customer.getId()), ShardedCustomerService::compareIdBytes));
+        return all.size() > limit ? new ArrayList<>(all.subList(0, limit)) : all;
+    }
+
+    @Override
+    public List<CustomerSuggestionDto> suggestCustomers(String prefix, Integer limit) {
+        // In memory and fed by every shard's writes.
+        return delegate.suggestCustomers(prefix, limit);
+    }
+
+    @Override
+    public CustomerStatsDto getCustomerStats() {
+        // In memory and fed by every shard's writes; the reconcile sums over shards.
+        return delegate.getCustomerStats();
+    }
+
+    @Override
+    public CustomerDedupeRunDto startDuplicateDetection(DedupeMode mode) {
+        // The job scans every shard itself.
+        return delegate.startDuplicateDetection(mode);
+    }
+
+    @Override
+    public CustomerDedupeRunDto getLatestDuplicateDetectionRun() {
+        return delegate.getLatestDuplicateDetectionRun();
+    }
+
+    @Override
+    public CustomerDuplicatesResponseDto getDuplicateClusters(int page, int size) {
+        // A cluster can span shards, so its members are loaded through the scatter-gather batch get.
+        return dedupeJob.clusters(page, size, ids -> getCustomersByIds(ids.stream().map(UUID::toString).toList())
+                .getResults().stream()
+                .map(CustomerBatchItemResultDto::getCustomer)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    @Override
+    public CustomerPageResponseDto getCustomers(Integer page, Integer size, CustomerSortField sort, SortDirection order, String search, CountMode count) {
+        // Any shard may hold every row of the requested page, so each returns everything up to its end.
+        int needed = (page + 1) * size;
+        if (needed > maxOffsetRows) {
+            throw new PageTooDeepException(maxOffsetRows);
+        }
+        List<CustomerPageResponseDto> pages = shards.parallel(shard -> delegate.getCustomers(0, needed, sort, order, search, count));
+
+        List<CustomerResponseDto> merged = new ArrayList<>();
+        boolean anyMore = false;
+        long total = 0;
+        for (CustomerPageResponseDto shardPage : pages) {
+            merged.addAll(shardPage.getContent());
+            anyMore |= Boolean.TRUE.equals(shardPage.getHasNext());
+            total += shardPage.getTotalElements() != null ? shardPage.getTotalElements() : 0;
+        }
+        List<CustomerResponseDto> rows = sortRows(merged, sort, order);
+
+        int from = Math.min(page * size, rows.size());
+        List<CustomerResponseDto> content = new ArrayList<>(rows.subList(from, Math.min(from + size, rows.size())));
+        boolean hasNext = anyMore || rows.size() > needed;
+
+        Integer totalElements = null;
+        Integer totalPages = null;
+        if (count != CountMode.NONE) {
+            totalElements = (int) total;
+            totalPages = (int) ((total + size - 1) / size);
+        }
+        return new CustomerPageResponseDto(content, page, size, totalElements, totalPages, page == 0, !hasNext, hasNext);
+    }
+
+    @Override
+    public CustomerCursorPageResponseDto getCustomersByCursor(String cursor, Integer size, CustomerSortField sort, SortDirection order, String search) {
+        // A cursor is a (sort value, id) position, valid on every shard; each returns its next `size` rows.
+        boolean backward = cursor != null && !cursor.isBlank() && CustomerCursor.decode(cursor, sort, order).backward();
+        List<CustomerCursorPageResponseDto> pages = shards.parallel(shard -> delegate.getCustomersByCursor(cursor, size, sort, order, search));
+
+        List<CustomerResponseDto> merged = new ArrayList<>();
+        boolean anyMore = false;
+        for (CustomerCursorPageResponseDto shardPage : pages) {
+            merged.addAll(shardPage.getContent());
+            anyMore |= Boolean.TRUE.equals(backward ? shardPage.getHasPrevious() : shardPage.getHasNext());
+        }
+        List<CustomerResponseDto> rows = sortRows(merged, sort, order);
+        boolean hasMore = anyMore || rows.size() > size;
+
+        // Forward pages keep the first rows after the cursor, backward pages the last rows before it.
+        List<CustomerResponseDto> content = new ArrayList<>(backward
+                ? rows.subList(Math.max(0, rows.size() - size), rows.size())
+                : rows.subList(0, Math.min(size, rows.size())));
+
+        boolean hasNext = backward || hasMore;
+        boolean hasPrevious = backward ? hasMore : cursor != null && !cursor.isBlank();
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!content.isEmpty()) {
+            if (hasNext) {
+                nextCursor = CustomerCursor.after(content.get(content.size() - 1), sort, order).encode();
+            }
+            if (hasPrevious) {
+                prevCursor = CustomerCursor.before(content.get(0), sort, order).encode();
+            }
+        }
+        return new CustomerCursorPageResponseDto(content, size, nextCursor, prevCursor, hasNext, hasPrevious);
+    }
+
+    /**
+     * Splits a batch by shard, runs the parts in parallel and reassembles the per-item results in request order.
+     * Ids that do not parse go to shard 0, which reports them as not found like an unsharded call would.
+     */
+    private <T> CustomerBatchResponseDto scatterBatch(List<T> items, Function<T, String> idOf, ShardCall<T> call) {
+        Map<Integer, List<T>> byShard = new LinkedHashMap<>();
+        for (T item : items) {
+            byShard.computeIfAbsent(shardOf(idOf.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        Map<Integer, CustomerBatchResponseDto> responses = shards.parallel(byShard.keySet(), shard -> call.apply(shard, byShard.get(shard)));
+
+        Map<Integer, Iterator<CustomerBatchItemResultDto>> resultsByShard = new HashMap<>();
+        responses.forEach((shard, response) -> resultsByShard.put(shard, response.getResults().iterator()));
+        List<CustomerBatchItemResultDto> results = new ArrayList<>(items.size());
+        for (T item : items) {
+            results.add(resultsByShard.get(shardOf(idOf.apply(item))).next());
+        }
+        int failed = (int) results.stream().filter(result -> result.getStatus() >= 400).count();
+        return new CustomerBatchResponseDto(results, results.size() - failed, failed);
+    }
+
+    private int shardOf(String id) {
+        try {
+            return shards.shardOf(UUID.fromString(id));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Sorts the merged shard rows into the order one database returns for {@code ORDER BY sort, id}: text by the
+     * weights the shards' own collation gives it (see {@link ShardSortKeys}), ids by their stored bytes. A
+     * customer deleted between the shard reads and the weight lookup is left out, as a read a moment later would.
+     */
+    private List<CustomerResponseDto> sortRows(List<CustomerResponseDto> rows, CustomerSortField sort, SortDirection order) {
+        Function<CustomerResponseDto, String> text = switch (sort) {
+            case FIRST_NAME -> CustomerResponseDto::getFirstName;
+            case LAST_NAME -> CustomerResponseDto::getLastName;
+            case EMAIL -> CustomerResponseDto::getEmail;
+            case CREATED_AT -> null;
+        };
+        List<CustomerResponseDto> sorted = rows;
+        Comparator<CustomerResponseDto> bySortField;
+        if (text == null) {
+            bySortField = Comparator.comparing(CustomerResponseDto::getCreatedAt);
+        } else if (!sortKeys.weighted() || rows.isEmpty()) {
+            bySortField = Comparator.comparing(text);
+        } else {
+            String column = switch (sort) {
+                case FIRST_NAME -> "first_name";
+                case LAST_NAME -> "last_name";
+                default -> "email";
+            };
+            Map<UUID, byte[]> weights = sortKeys.weights(column, rows.stream().map(customer -> UUID.fromString(customer.getId())).toList());
+            sorted = rows.stream()
+                    .filter(customer -> weights.containsKey(UUID.fromString(customer.getId())))
+                    .collect(Collectors.toCollection(ArrayList::new));
+            bySortField = Comparator.<CustomerResponseDto, byte[]>comparing(customer -> weights.get(UUID.fromString(customer.getId())), Arrays::compareUnsigned);
+        }
+        Comparator<CustomerResponseDto> rowOrder = bySortField
+                .thenComparing(customer -> UUID.fromString(customer.getId()), ShardedCustomerService::compareIdBytes);
+        sorted.sort(order == SortDirection.ASC ? rowOrder : rowOrder.reversed());
+        return sorted;
+    }
+
+    private static int compareIdBytes(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    @FunctionalInterface
+    private interface ShardCall<T> {
+        CustomerBatchResponseDto apply(int shard, List<T> items);
+    }
+}
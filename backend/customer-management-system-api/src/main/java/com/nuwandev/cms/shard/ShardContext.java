@@ -0,0 +1,28 @@
+package com.nuwandev.cms.shard;
+
+/**
+ * Shard the current thread's database work goes to. Set by {@link Shards} around each unit of work, before any
+ * transaction starts, because a transaction keeps the connection it began with.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /** The selected shard, or {@code null} outside {@link Shards#on}; such work runs on shard 0. */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static Integer set(Integer shard) {
+        Integer previous = CURRENT.get();
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,31 @@
+package com.nuwandev.cms.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.List;
+
+/**
+ * One connection pool per shard, in {@code cms.sharding.shards} order. Direct access is for work that spans
+ * shards outside JPA: the email directory and the rebalancer.
+ */
+public class ShardDataSources {
+
+    private final List<HikariDataSource> dataSources;
+
+    public ShardDataSources(List<HikariDataSource> dataSources) {
+        this.dataSources = List.copyOf(dataSources);
+    }
+
+    public List<HikariDataSource> all() {
+        return dataSources;
+    }
+
+    public HikariDataSource get(int shard) {
+        return dataSources.get(shard);
+    }
+
+    /** Invoked as the bean's destroy method: the pools are not beans of their own. */
+    public void close() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
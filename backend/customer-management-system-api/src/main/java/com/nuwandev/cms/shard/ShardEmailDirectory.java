@@ -0,0 +1,106 @@
+package com.nuwandev.cms.shard;
+
+import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.exception.CustomerAlreadyExistsException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Global email → customer id table on shard 0, whose primary key keeps emails unique across shards (each
+ * shard's own unique index only sees its own rows). The customer's shard follows from the id.
+ * <p>
+ * An email is reserved here before the customer row is written on its shard and released after the row is
+ * deleted; a failed write releases its reservation. A crash between the two steps leaves an orphan reservation,
+ * which the {@link ShardRebalancer} removes.
+ */
+public class ShardEmailDirectory {
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate named;
+    private final TransactionTemplate transactionTemplate;
+
+    public ShardEmailDirectory(DataSource directoryShard) {
+        this.jdbc = new JdbcTemplate(directoryShard);
+        this.named = new NamedParameterJdbcTemplate(jdbc);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(directoryShard));
+    }
+
+    public void reserve(String email, UUID customerId) {
+        try {
+            jdbc.update("INSERT INTO customer_email_directory (email, customer_id) VALUES (?, ?)", key(email), toBytes(customerId));
+        } catch (DuplicateKeyException e) {
+            throw new CustomerAlreadyExistsException(email);
+        }
+    }
+
+    /**
+     * Reserves all of {@code emails} in one transaction; any duplicate rolls back the whole batch, so a failed
+     * call leaves nothing behind to release.
+     */
+    public void reserveAll(Map<String, UUID> emails) {
+        List<Object[]> rows = new ArrayList<>(emails.size());
+        emails.forEach((email, id) -> rows.add(new Object[]{key(email), toBytes(id)}));
+        transactionTemplate.executeWithoutResult(status ->
+                jdbc.batchUpdate("INSERT INTO customer_email_directory (email, customer_id) VALUES (?, ?)", rows));
+    }
+
+    public void release(String email, UUID customerId) {
+        jdbc.update("DELETE FROM customer_email_directory WHERE email = ? AND customer_id = ?", key(email), toBytes(customerId));
+    }
+
+    public void releaseAll(Map<String, UUID> emails) {
+        List<Object[]> rows = new ArrayList<>(emails.size());
+        emails.forEach((email, id) -> rows.add(new Object[]{key(email), toBytes(id)}));
+        jdbc.batchUpdate("DELETE FROM customer_email_directory WHERE email = ? AND customer_id = ?", rows);
+    }
+
+    /** The subset of {@code emails} already reserved, in directory (lower-case) form. */
+    public Set<String> findExisting(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        List<String> keys = emails.stream().map(ShardEmailDirectory::key).toList();
+        return new HashSet<>(named.queryForList(
+                "SELECT email FROM customer_email_directory WHERE email IN (:emails)",
+                new MapSqlParameterSource("emails", keys),
+                String.class));
+    }
+
+    /** Directory entries after {@code afterEmail} in email order, for a full scan. */
+    List<Entry> page(String afterEmail, int limit) {
+        return jdbc.query(
+                "SELECT email, customer_id FROM customer_email_directory WHERE email > ? ORDER BY email LIMIT ?",
+                (rs, rowNum) -> new Entry(rs.getString(1), fromBytes(rs.getBytes(2))),
+                afterEmail, limit);
+    }
+
+    static String key(String email) {
+        return Customer.normalizeEmail(email);
+    }
+
+    static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    record Entry(String email, UUID customerId) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.nuwandev.cms.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Offline maintenance for a sharded deployment, run after appending a shard or after a crash:
+ * <ol>
+ *     <li>moves every customer whose id hashes to another shard there, together with its search tokens;</li>
+ *     <li>adds directory entries missing for customers (e.g. data that predates sharding);</li>
+ *     <li>drops directory entries whose customer no longer exists (e.g. a crash between reserve and insert).</li>
+ * </ol>
+ * Each batch is copied and committed on the target before it is deleted from the source, and the copy first
+ * deletes whatever an interrupted run left behind, so rerunning after a failure is safe. Reads for a customer
+ * that has not moved yet go to its new shard and miss, so it runs as its own command ({@code rebalance-shards}),
+ * with no web server, while no instance serves traffic.
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    private static final String CUSTOMER_COLUMNS = "id, first_name, last_name, email, phone, status, created_at, updated_at, version";
+    private static final String TOKEN_COLUMNS = "token, customer_id, weight";
+
+    private final ShardDataSources dataSources;
+    private final Shards shards;
+    private final ShardEmailDirectory directory;
+    private final int batchSize;
+
+    public ShardRebalancer(ShardDataSources dataSources, Shards shards, ShardEmailDirectory directory, int batchSize) {
+        this.dataSources = dataSources;
+        this.shards = shards;
+        this.directory = directory;
+        this.batchSize = batchSize;
+    }
+
+    public Report rebalance() {
+        long started = System.nanoTime();
+        long moved = 0;
+        for (int shard = 0; shard < shards.count(); shard++) {
+            moved += moveMisplaced(shard);
+        }
+        long added = 0;
+        for (int shard = 0; shard < shards.count(); shard++) {
+            added += addMissingDirectoryEntries(shard);
+        }
+        long removed = removeOrphanDirectoryEntries();
+
+        Report report = new Report(moved, added, removed, (System.nanoTime() - started) / 1_000_000);
+        log.info("Shard rebalance finished: {} customers moved, {} directory entries added, {} orphans removed in {} ms",
+                report.moved(), report.directoryEntriesAdded(), report.directoryEntriesRemoved(), report.durationMs());
+        return report;
+    }
+
+    private long moveMisplaced(int source) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSources.get(source));
+        long moved = 0;
+        byte[] lastId = ShardEmailDirectory.toBytes(new UUID(0, 0));
+        while (true) {
+            List<byte[]> ids = jdbc.query("SELECT id FROM customers WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> rs.getBytes(1), lastId, batchSize);
+            if (ids.isEmpty()) {
+                return moved;
+            }
+            lastId = ids.get(ids.size() - 1);
+
+            Map<Integer, List<byte[]>> byTarget = new HashMap<>();
+            for (byte[] id : ids) {
+                int target = shards.shardOf(ShardEmailDirectory.fromBytes(id));
+                if (target != source) {
+                    byTarget.computeIfAbsent(target, t -> new ArrayList<>()).add(id);
+                }
+            }
+            for (Map.Entry<Integer, List<byte[]>> entry : byTarget.entrySet()) {
+                move(source, entry.getKey(), entry.getValue());
+                moved += entry.getValue().size();
+            }
+        }
+    }
+
+    private void move(int source, int target, List<byte[]> ids) {
+        NamedParameterJdbcTemplate from = new NamedParameterJdbcTemplate(dataSources.get(source));
+        MapSqlParameterSource idParam = new MapSqlParameterSource("ids", ids);
+        List<Object[]> customers = from.query("SELECT " + CUSTOMER_COLUMNS + " FROM customers WHERE id IN (:ids)", idParam, ShardRebalancer::row);
+        List<Object[]> tokens = from.query("SELECT " + TOKEN_COLUMNS + " FROM customer_search_tokens WHERE customer_id IN (:ids)", idParam, ShardRebalancer::row);
+
+        inTransaction(dataSources.get(target), to -> {
+            to.update("DELETE FROM customer_search_tokens WHERE customer_id IN (:ids)", idParam);
+            to.update("DELETE FROM customers WHERE id IN (:ids)", idParam);
+            to.getJdbcTemplate().batchUpdate("INSERT INTO customers (" + CUSTOMER_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", customers);
+            to.getJdbcTemplate().batchUpdate("INSERT INTO customer_search_tokens (" + TOKEN_COLUMNS + ") VALUES (?, ?, ?)", tokens);
+        });
+        inTransaction(dataSources.get(source), on -> {
+            on.update("DELETE FROM customer_search_tokens WHERE customer_id IN (:ids)", idParam);
+            on.update("DELETE FROM customers WHERE id IN (:ids)", idParam);
+        });
+    }
+
+    private long addMissingDirectoryEntries(int shard) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSources.get(shard));
+        long added = 0;
+        byte[] lastId = ShardEmailDirectory.toBytes(new UUID(0, 0));
+        while (true) {
+            Map<String, UUID> emails = new HashMap<>();
+            List<byte[]> ids = new ArrayList<>();
+            jdbc.query("SELECT id, email FROM customers WHERE id > ? ORDER BY id LIMIT ?", rs -> {
+                ids.add(rs.getBytes(1));
+                emails.put(rs.getString(2), ShardEmailDirectory.fromBytes(rs.getBytes(1)));
+            }, lastId, batchSize);
+            if (ids.isEmpty()) {
+                return added;
+            }
+            lastId = ids.get(ids.size() - 1);
+
+            Set<String> existing = directory.findExisting(emails.keySet());
+            Map<String, UUID> missing = new HashMap<>();
+            emails.forEach((email, id) -> {
+                if (!existing.contains(ShardEmailDirectory.key(email))) {
+                    missing.put(email, id);
+                }
+            });
+            if (!missing.isEmpty()) {
+                directory.reserveAll(missing);
+                added += missing.size();
+            }
+        }
+    }
+
+    private long removeOrphanDirectoryEntries() {
+        long removed = 0;
+        String lastEmail = "";
+        while (true) {
+            List<ShardEmailDirectory.Entry> entries = directory.page(lastEmail, batchSize);
+            if (entries.isEmpty()) {
+                return removed;
+            }
+            lastEmail = entries.get(entries.size() - 1).email();
+
+            Map<Integer, List<byte[]>> idsByShard = new HashMap<>();
+            entries.forEach(entry -> idsByShard
+                    .computeIfAbsent(shards.shardOf(entry.customerId()), s -> new ArrayList<>())
+                    .add(ShardEmailDirectory.toBytes(entry.customerId())));
+            Set<UUID> present = new HashSet<>();
+            idsByShard.forEach((shard, ids) -> new NamedParameterJdbcTemplate(dataSources.get(shard))
+                    .query("SELECT id FROM customers WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids),
+                            rs -> {
+                                present.add(ShardEmailDirectory.fromBytes(rs.getBytes(1)));
+                            }));
+
+            Map<String, UUID> orphans = new HashMap<>();
+            entries.stream()
+                    .filter(entry -> !present.contains(entry.customerId()))
+                    .forEach(entry -> orphans.put(entry.email(), entry.customerId()));
+            if (!orphans.isEmpty()) {
+                directory.releaseAll(orphans);
+                removed += orphans.size();
+            }
+        }
+    }
+
+    private static Object[] row(ResultSet rs, int rowNum) throws SQLException {
+        int columns = rs.getMetaData().getColumnCount();
+        Object[] row = new Object[columns];
+        for (int i = 0; i < columns; i++) {
+            row[i] = rs.getObject(i + 1);
+        }
+        return row;
+    }
+
+    private static void inTransaction(DataSource dataSource, Consumer<NamedParameterJdbcTemplate> work) {
+        NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(dataSource);
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status -> work.accept(jdbc));
+    }
+
+    public record Report(long moved, long directoryEntriesAdded, long directoryEntriesRemoved, long durationMs) {
+    }
+}
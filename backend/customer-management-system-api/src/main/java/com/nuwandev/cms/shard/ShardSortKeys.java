@@ -0,0 +1,79 @@
+package com.nuwandev.cms.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The bytes a shard's database sorts a text column by, so rows from different shards can be merged in exactly the
+ * order one database would return them. On MySQL these are {@code WEIGHT_STRING(column)} under the column's own
+ * collation (e.g. {@code utf8mb4_0900_ai_ci}), which no Java collator reproduces. Other databases (H2 in the local
+ * profiles and tests) compare text by its UTF-16 code units, which is the plain {@link String} order, so there
+ * are no weights to fetch.
+ */
+@Slf4j
+public class ShardSortKeys {
+
+    private static final int LOOKUP_BATCH = 1000;
+
+    private final ShardDataSources dataSources;
+    private final Shards shards;
+    private final boolean weighted;
+
+    public ShardSortKeys(ShardDataSources dataSources, Shards shards) {
+        this.dataSources = dataSources;
+        this.shards = shards;
+        this.weighted = "MySQL".equalsIgnoreCase(databaseProductName(dataSources));
+    }
+
+    /** Whether {@link #weights} returns the database's weights; if not, compare the values as strings. */
+    public boolean weighted() {
+        return weighted;
+    }
+
+    /**
+     * {@code column}'s sort weight for each of {@code ids}, read on their shards in parallel. Customers deleted
+     * since they were listed have no entry.
+     */
+    public Map<UUID, byte[]> weights(String column, Collection<UUID> ids) {
+        Map<Integer, List<byte[]>> byShard = new HashMap<>();
+        ids.forEach(id -> byShard.computeIfAbsent(shards.shardOf(id), shard -> new ArrayList<>()).add(ShardEmailDirectory.toBytes(id)));
+        String sql = "SELECT id, WEIGHT_STRING(" + column + ") FROM customers WHERE id IN (:ids)";
+
+        Map<UUID, byte[]> weights = new HashMap<>();
+        shards.parallel(byShard.keySet(), shard -> {
+            NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(dataSources.get(shard));
+            List<byte[]> shardIds = byShard.get(shard);
+            Map<UUID, byte[]> found = new HashMap<>();
+            for (int from = 0; from < shardIds.size(); from += LOOKUP_BATCH) {
+                List<byte[]> batch = shardIds.subList(from, Math.min(from + LOOKUP_BATCH, shardIds.size()));
+                jdbc.query(sql, new MapSqlParameterSource("ids", batch),
+                        rs -> {
+                            found.put(ShardEmailDirectory.fromBytes(rs.getBytes(1)), rs.getBytes(2));
+                        });
+            }
+            return found;
+        }).values().forEach(weights::putAll);
+        return weights;
+    }
+
+    private static String databaseProductName(ShardDataSources dataSources) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSources.get(0), DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            // Unknown database: merge by the plain string order rather than fail startup.
+            log.warn("Could not read the shard database product, merging text sorts without sort weights", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.nuwandev.cms.shard;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code cms.sharding.*}: customers hash-partitioned by id over {@code shards}. Replaces
+ * {@code spring.datasource.url}; the first shard also holds the global email directory.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("cms.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    /**
+     * Order matters: a customer's shard is a jump consistent hash of its id over this list, so shards may only
+     * be appended. Run the rebalancer ({@code rebalance-shards}) after appending one.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Offset pages are merged from the first {@code (page + 1) * size} rows of every shard; deeper pages than
+     * this are refused in favour of the cursor endpoint.
+     */
+    private int maxOffsetRows = 10_000;
+
+    private int rebalanceBatchSize = 500;
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
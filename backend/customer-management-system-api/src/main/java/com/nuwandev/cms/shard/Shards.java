@@ -0,0 +1,132 @@
+package com.nuwandev.cms.shard;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Shard topology and the way to run work on a shard. Without {@code cms.sharding.enabled} there is one shard and
+ * everything runs inline, so callers need no separate unsharded code path.
+ * <p>
+ * Fan-out runs one virtual thread per shard; each starts its own transaction on its own shard's pool.
+ */
+@Component
+public class Shards {
+
+    private final int count;
+    private final ExecutorService fanOut;
+
+    public Shards(ObjectProvider<ShardingProperties> properties) {
+        ShardingProperties sharding = properties.getIfAvailable();
+        this.count = sharding != null && sharding.isEnabled() ? sharding.getShards().size() : 1;
+        this.fanOut = count > 1 ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int shardOf(UUID id) {
+        // The low half of a UUIDv7 is random; the high half starts with the timestamp.
+        return count == 1 ? 0 : jumpHash(id.getLeastSignificantBits(), count);
+    }
+
+    public <T> T on(int shard, Supplier<T> work) {
+        if (count == 1) {
+            return work.get();
+        }
+        Integer previous = ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    /** Runs {@code work} on every shard in turn. */
+    public void forEach(IntConsumer work) {
+        for (int shard = 0; shard < count; shard++) {
+            int current = shard;
+            on(shard, () -> {
+                work.accept(current);
+                return null;
+            });
+        }
+    }
+
+    /** Runs {@code work} on every shard in parallel; the results are in shard order. */
+    public <T> List<T> parallel(IntFunction<T> work) {
+        return new ArrayList<>(parallel(IntStream.range(0, count).boxed().toList(), work).values());
+    }
+
+    /**
+     * Runs {@code work} on each of {@code shards} in parallel. The first failure is rethrown once every shard has
+     * finished, so no shard is left mid-transaction behind the caller's back.
+     */
+    public <T> Map<Integer, T> parallel(Collection<Integer> shards, IntFunction<T> work) {
+        Map<Integer, T> results = new LinkedHashMap<>();
+        if (shards.size() <= 1 || fanOut == null) {
+            shards.forEach(shard -> results.put(shard, on(shard, () -> work.apply(shard))));
+            return results;
+        }
+
+        Map<Integer, Future<T>> futures = new LinkedHashMap<>();
+        shards.forEach(shard -> futures.put(shard, fanOut.submit(() -> on(shard, () -> work.apply(shard)))));
+        RuntimeException failure = null;
+        for (Map.Entry<Integer, Future<T>> entry : futures.entrySet()) {
+            try {
+                results.put(entry.getKey(), entry.getValue().get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : new CompletionException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.values().forEach(future -> future.cancel(true));
+                throw new IllegalStateException("Interrupted while waiting for shards", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (fanOut != null) {
+            fanOut.close();
+        }
+    }
+
+    /**
+     * Lamping and Veach's jump consistent hash: when {@code buckets} grows by one, only the keys that now map to
+     * the new bucket move, about {@code 1 / buckets} of them.
+     */
+    static int jumpHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+}
@@ -1,11 +1,38 @@
 package com.nuwandev.cms.specification;
 
 import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.domain.CustomerSearchToken;
+import com.nuwandev.cms.search.CustomerSearchTokenizer;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
 public class CustomerSpecification {
 
+    public static Specification<Customer> all() {
+        return (root, cq, cb) -> cb.conjunction();
+    }
+
+    /**
+     * Customers whose firstName, lastName, email or phone contain {@code query}. Candidates come from the
+     * token index, so the {@code LIKE} only re-checks the handful of rows that share every query token.
+     */
     public static Specification<Customer> search(String query) {
+        Set<String> tokens = CustomerSearchTokenizer.queryTokens(query);
+        Specification<Customer> matches = matches(query);
+        if (tokens.isEmpty()) {
+            return matches;
+        }
+        return indexed(tokens).and(matches);
+    }
+
+    public static Specification<Customer> matches(String query) {
         return (root, cq, cb) -> {
             String pattern = "%" + query.toLowerCase() + "%";
 
@@ -17,4 +44,49 @@ public class CustomerSpecification {
             );
         };
     }
+
+    public static Specification<Customer> idIn(Collection<UUID> ids) {
+        return (root, cq, cb) -> root.get("id").in(ids);
+    }
+
+    private static Specification<Customer> indexed(Set<String> tokens) {
+        return (root, cq, cb) -> {
+            Subquery<UUID> candidates = cq.subquery(UUID.class);
+            Root<CustomerSearchToken> token = candidates.from(CustomerSearchToken.class);
+            candidates.select(token.get("customerId"))
+                    .where(token.get("token").in(tokens))
+                    .groupBy(token.get("customerId"))
+                    .having(cb.equal(cb.count(token), (long) tokens.size()));
+
+            return root.get("id").in(candidates);
+        };
+    }
+
+    public static Specification<Customer> updatedBefore(LocalDateTime horizon) {
+        return (root, cq, cb) -> cb.lessThan(root.get("updatedAt"), horizon);
+    }
+
+    /**
+     * Rows strictly after (or, when {@code ascending} is false, strictly before) the given
+     * (sort value, id) pair, i.e. {@code col > v OR (col = v AND id > id)}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Customer> keysetAfter(String field, Comparable<?> value, UUID id, boolean ascending) {
+        return (root, cq, cb) -> {
+            Path<Comparable> column = root.get(field);
+            Path<UUID> idColumn = root.get("id");
+            Comparable key = value;
+
+            if (ascending) {
+                return cb.or(
+                        cb.greaterThan(column, key),
+                        cb.and(cb.equal(column, key), cb.greaterThan(idColumn, id))
+                );
+            }
+            return cb.or(
+                    cb.lessThan(column, key),
+                    cb.and(cb.equal(column, key), cb.lessThan(idColumn, id))
+            );
+        };
+    }
 }
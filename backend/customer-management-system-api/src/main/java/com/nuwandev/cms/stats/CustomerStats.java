@@ -0,0 +1,206 @@
+package com.nuwandev.cms.stats;
+
+import com.nuwandev.cms.datasource.ReadYourWrites;
+import com.nuwandev.cms.dto.CustomerDailyCountDto;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.dto.CustomerStatsDto;
+import com.nuwandev.cms.enums.Status;
+import com.nuwandev.cms.event.CustomerChangedEvent;
+import com.nuwandev.cms.repository.CustomerRepository;
+import com.nuwandev.cms.shard.Shards;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Customer counts by status and signups per day, kept in memory so {@code /customers/stats} never touches the
+ * database. Answers are a baseline read from the database plus {@link LongAdder} deltas fed by committed
+ * {@link CustomerChangedEvent}s, so concurrent writers never contend on a shared counter.
+ * <p>
+ * A background reconcile replaces the baseline with fresh {@code COUNT}s and drops the deltas those counts
+ * already include, which bounds any drift (writes outside this instance, lost events) to one interval. While
+ * the counts run, new events go to a fresh delta; one committed just before the query starts can be counted
+ * twice until the next reconcile.
+ */
+@Slf4j
+@Component
+public class CustomerStats {
+
+    private static final Status[] STATUSES = Status.values();
+
+    private final CustomerRepository customerRepository;
+    private final Shards shards;
+    private final int signupDays;
+
+    private volatile State state = new State(Baseline.EMPTY, null, new Counters());
+
+    public CustomerStats(
+            CustomerRepository customerRepository,
+            Shards shards,
+            MeterRegistry meterRegistry,
+            @Value("${cms.stats.signup-days:30}") int signupDays
+    ) {
+        this.customerRepository = customerRepository;
+        this.shards = shards;
+        this.signupDays = signupDays;
+        for (Status status : STATUSES) {
+            Gauge.builder("cms.customers", this, stats -> stats.count(stats.state, status))
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    public CustomerStatsDto snapshot() {
+        State current = state;
+        Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+        long total = 0;
+        for (Status status : STATUSES) {
+            long count = count(current, status);
+            byStatus.put(status, count);
+            total += count;
+        }
+
+        LocalDate today = LocalDate.now();
+        List<CustomerDailyCountDto> signups = new ArrayList<>(signupDays);
+        for (LocalDate day = today.minusDays(signupDays - 1L); !day.isAfter(today); day = day.plusDays(1)) {
+            long count = current.base.signups.getOrDefault(day, 0L) + current.delta.signups(day);
+            if (current.pending != null) {
+                count += current.pending.signups(day);
+            }
+            signups.add(new CustomerDailyCountDto(day, count));
+        }
+        return new CustomerStatsDto(total, byStatus, signups, current.base.reconciledAt);
+    }
+
+    @TransactionalEventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        Counters delta = state.delta;
+        CustomerResponseDto previous = event.previous();
+        CustomerResponseDto current = event.current();
+        switch (event.type()) {
+            case CREATED -> delta.add(current, 1);
+            case DELETED -> delta.add(previous, -1);
+            case UPDATED -> {
+                if (previous.getStatus() != current.getStatus()) {
+                    delta.status[previous.getStatus().ordinal()].decrement();
+                    delta.status[current.getStatus().ordinal()].increment();
+                }
+            }
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${cms.stats.reconcile-interval:PT5M}",
+            fixedDelayString = "${cms.stats.reconcile-interval:PT5M}"
+    )
+    public synchronized void reconcile() {
+        State before = state;
+        // From here on events land in a fresh delta; the one set aside is covered by the counts below.
+        state = new State(before.base, before.delta, new Counters());
+
+        Baseline fresh;
+        ReadYourWrites.pinToPrimary();
+        try {
+            fresh = load();
+        } catch (RuntimeException e) {
+            log.warn("Customer stats reconcile failed, keeping the previous counts", e);
+            State running = state;
+            running.delta.merge(running.pending);
+            state = new State(running.base, null, running.delta);
+            return;
+        } finally {
+            ReadYourWrites.clear();
+        }
+
+        State running = state;
+        long drift = 0;
+        for (Status status : STATUSES) {
+            drift += fresh.status[status.ordinal()] - running.base.status[status.ordinal()] - running.pending.status(status);
+        }
+        if (drift != 0 && before.base != Baseline.EMPTY) {
+            log.info("Customer stats reconciled with the database, total was off by {}", drift);
+        }
+        state = new State(fresh, null, running.delta);
+    }
+
+    private Baseline load() {
+        long[] byStatus = new long[STATUSES.length];
+        LocalDate from = LocalDate.now().minusDays(signupDays - 1L);
+        Map<LocalDate, Long> signups = new HashMap<>();
+        // Shards hold disjoint customers, so their counts add up.
+        shards.forEach(shard -> {
+            for (Status status : STATUSES) {
+                byStatus[status.ordinal()] += customerRepository.countByStatus(status);
+            }
+            for (CustomerDailyCountDto day : customerRepository.countCreatedPerDaySince(from.atStartOfDay())) {
+                signups.merge(day.getDay(), day.getCount(), Long::sum);
+            }
+        });
+        return new Baseline(byStatus, signups, LocalDateTime.now());
+    }
+
+    private long count(State current, Status status) {
+        long count = current.base.status[status.ordinal()] + current.delta.status(status);
+        return current.pending != null ? count + current.pending.status(status) : count;
+    }
+
+    /** Read from the database by the last reconcile; never mutated. */
+    private record Baseline(long[] status, Map<LocalDate, Long> signups, LocalDateTime reconciledAt) {
+
+        static final Baseline EMPTY = new Baseline(new long[STATUSES.length], Map.of(), null);
+    }
+
+    /**
+     * Replaced as a whole so a reader never sees a new baseline together with the deltas it already includes.
+     * {@code pending} is the delta set aside by a running reconcile.
+     */
+    private record State(Baseline base, Counters pending, Counters delta) {
+    }
+
+    private static final class Counters {
+
+        private final LongAdder[] status = new LongAdder[STATUSES.length];
+        private final Map<LocalDate, LongAdder> signups = new ConcurrentHashMap<>();
+
+        private Counters() {
+            for (int i = 0; i < status.length; i++) {
+                status[i] = new LongAdder();
+            }
+        }
+
+        private void add(CustomerResponseDto customer, int delta) {
+            status[customer.getStatus().ordinal()].add(delta);
+            signups.computeIfAbsent(customer.getCreatedAt().toLocalDate(), day -> new LongAdder()).add(delta);
+        }
+
+        private void merge(Counters other) {
+            for (int i = 0; i < status.length; i++) {
+                status[i].add(other.status[i].sum());
+            }
+            other.signups.forEach((day, count) -> signups.computeIfAbsent(day, d -> new LongAdder()).add(count.sum()));
+        }
+
+        private long status(Status value) {
+            return status[value.ordinal()].sum();
+        }
+
+        private long signups(LocalDate day) {
+            LongAdder count = signups.get(day);
+            return count == null ? 0 : count.sum();
+        }
+    }
+}
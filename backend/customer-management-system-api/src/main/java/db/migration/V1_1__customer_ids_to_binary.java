@@ -0,0 +1,51 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Converts {@code customers.id} from the {@code VARCHAR(36)} UUID strings of the ddl-auto schema to their 16-byte
+ * form. Both conversions keep RFC byte order, which is what Hibernate reads back into {@link java.util.UUID}, so
+ * every existing id keeps its string form in the API. Old ids stay random (v4); new rows get time-ordered v7 ids.
+ * <p>
+ * Written in Java because the conversion differs between MySQL ({@code UUID_TO_BIN}) and H2 (a {@code UUID} cast),
+ * while the shard and local replica migrations only read the default {@code db/migration} location. On MySQL the
+ * table is rebuilt, so expect a full table copy on large data sets.
+ */
+public class V1_1__customer_ids_to_binary extends BaseJavaMigration {
+
+    private static final List<String> MYSQL = List.of(
+            "ALTER TABLE customers ADD COLUMN id_bin BINARY(16) NULL",
+            "UPDATE customers SET id_bin = UUID_TO_BIN(id)",
+            """
+                    ALTER TABLE customers
+                        DROP PRIMARY KEY,
+                        DROP COLUMN id,
+                        CHANGE COLUMN id_bin id BINARY(16) NOT NULL FIRST,
+                        ADD PRIMARY KEY (id)
+                    """
+    );
+
+    private static final List<String> H2 = List.of(
+            "ALTER TABLE customers ADD COLUMN id_bin BINARY(16)",
+            "UPDATE customers SET id_bin = CAST(CAST(id AS UUID) AS BINARY(16))",
+            "ALTER TABLE customers DROP PRIMARY KEY",
+            "ALTER TABLE customers DROP COLUMN id",
+            "ALTER TABLE customers ALTER COLUMN id_bin RENAME TO id",
+            "ALTER TABLE customers ALTER COLUMN id SET NOT NULL",
+            "ALTER TABLE customers ADD PRIMARY KEY (id)"
+    );
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        boolean h2 = "H2".equals(context.getConnection().getMetaData().getDatabaseProductName());
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String sql : h2 ? H2 : MYSQL) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
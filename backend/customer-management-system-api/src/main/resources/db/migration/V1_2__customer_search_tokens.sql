@@ -0,0 +1,12 @@
+-- Search index (CustomerSearchIndexer): one row per trigram of a customer's name, email and phone. Filled by the
+-- application's backfill on its next start.
+
+CREATE TABLE customer_search_tokens
+(
+    token       VARCHAR(16) NOT NULL,
+    customer_id BINARY(16)  NOT NULL,
+    weight      INT         NOT NULL,
+    PRIMARY KEY (token, customer_id)
+);
+
+CREATE INDEX idx_search_tokens_customer ON customer_search_tokens (customer_id);
@@ -0,0 +1,16 @@
+-- Schema as previously created by Hibernate ddl-auto. Existing databases are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and start from V1.1.
+
+CREATE TABLE customers
+(
+    id         VARCHAR(36)                NOT NULL,
+    first_name VARCHAR(255)               NOT NULL,
+    last_name  VARCHAR(255)               NOT NULL,
+    email      VARCHAR(255)               NOT NULL,
+    phone      VARCHAR(255),
+    status     ENUM ('ACTIVE','INACTIVE') NOT NULL,
+    created_at DATETIME(6)                NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_customers_email UNIQUE (email)
+);
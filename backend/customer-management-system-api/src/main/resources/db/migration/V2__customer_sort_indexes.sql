@@ -0,0 +1,8 @@
+-- One index per CustomerSortField, with id as the tie-breaker the keyset cursor orders by, so both
+-- offset and cursor listings read rows in index order instead of filesorting the table.
+-- EMAIL needs no new index: the unique email index already carries the primary key.
+
+CREATE INDEX idx_customers_first_name_id ON customers (first_name, id);
+CREATE INDEX idx_customers_last_name_id ON customers (last_name, id);
+CREATE INDEX idx_customers_created_at_id ON customers (created_at, id);
+CREATE INDEX idx_customers_status ON customers (status);
@@ -0,0 +1,3 @@
+-- Optimistic-locking version, exposed to clients as the customer's ETag.
+
+ALTER TABLE customers ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- Change feed (GET /api/v1/customers/changes): live rows are read in (updated_at, id) order, deleted ones
+-- from tombstones in (deleted_at, id) order, so a sync reads only what changed since its token.
+
+CREATE INDEX idx_customers_updated_at_id ON customers (updated_at, id);
+
+CREATE TABLE customer_tombstones
+(
+    id         BINARY(16)  NOT NULL,
+    deleted_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_customer_tombstones_deleted_at_id ON customer_tombstones (deleted_at, id);
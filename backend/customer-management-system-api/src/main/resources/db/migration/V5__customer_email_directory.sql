@@ -0,0 +1,9 @@
+-- Global email -> customer id directory for sharded deployments (cms.sharding). Only the first shard's copy is
+-- used; it keeps emails unique across shards, which the per-shard uk_customers_email cannot.
+
+CREATE TABLE customer_email_directory
+(
+    email       VARCHAR(255) NOT NULL,
+    customer_id BINARY(16)   NOT NULL,
+    PRIMARY KEY (email)
+);
@@ -0,0 +1,51 @@
+-- Working tables of the duplicate-customer job (com.nuwandev.cms.dedupe). With cms.sharding they live on the
+-- first shard only, next to the email directory, and cover the customers of every shard.
+
+-- Normalized matching fields, one row per customer.
+CREATE TABLE customer_dedupe_profiles
+(
+    customer_id    BINARY(16)   NOT NULL,
+    first_name     VARCHAR(255) NOT NULL,
+    last_name      VARCHAR(255) NOT NULL,
+    first_phonetic VARCHAR(16)  NOT NULL,
+    last_phonetic  VARCHAR(16)  NOT NULL,
+    phone          VARCHAR(16),
+    email_local    VARCHAR(255) NOT NULL,
+    PRIMARY KEY (customer_id)
+);
+
+-- Blocking keys: only customers sharing a key are compared.
+CREATE TABLE customer_dedupe_blocks
+(
+    block_key   VARCHAR(300) NOT NULL,
+    customer_id BINARY(16)   NOT NULL,
+    PRIMARY KEY (block_key, customer_id)
+);
+
+CREATE INDEX idx_dedupe_blocks_customer ON customer_dedupe_blocks (customer_id);
+
+-- Scored matches, stored once per pair with customer_id < duplicate_id.
+CREATE TABLE customer_duplicate_pairs
+(
+    customer_id  BINARY(16) NOT NULL,
+    duplicate_id BINARY(16) NOT NULL,
+    score        DOUBLE     NOT NULL,
+    PRIMARY KEY (customer_id, duplicate_id)
+);
+
+CREATE INDEX idx_duplicate_pairs_duplicate ON customer_duplicate_pairs (duplicate_id);
+
+CREATE TABLE customer_dedupe_runs
+(
+    id          BIGINT      NOT NULL AUTO_INCREMENT,
+    mode        VARCHAR(16) NOT NULL,
+    state       VARCHAR(16) NOT NULL,
+    started_at  DATETIME(6) NOT NULL,
+    finished_at DATETIME(6),
+    scanned     BIGINT      NOT NULL DEFAULT 0,
+    compared    BIGINT      NOT NULL DEFAULT 0,
+    matched     BIGINT      NOT NULL DEFAULT 0,
+    clusters    BIGINT      NOT NULL DEFAULT 0,
+    error       VARCHAR(1000),
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,13 @@
+-- Progress of the search index backfill (CustomerSearchIndexer): customers up to backfilled_through (in id order)
+-- are indexed, and completed_at is set once the backfill has reached the end of the table. Each batch locks the
+-- single row, so instances starting together share the work instead of racing on it.
+
+CREATE TABLE customer_search_index_state
+(
+    id                 INT         NOT NULL,
+    backfilled_through BINARY(16)  NOT NULL,
+    completed_at       DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+INSERT INTO customer_search_index_state (id, backfilled_through) VALUES (1, X'00000000000000000000000000000000');
@@ -0,0 +1,5 @@
+-- Emails are now stored in lower case (Customer.normalizeEmail), so duplicate checks compare the same form on every
+-- database instead of relying on MySQL's case-insensitive collation. The unique index already rules out two
+-- emails that differ only in case, so lower-casing the existing rows cannot collide.
+
+UPDATE customers SET email = LOWER(email);
@@ -0,0 +1,28 @@
+package com.nuwandev.cms.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The context {@code rebalance-shards} runs in: the rebalance command is its only runner, and nothing is scheduled.
+ */
+@SpringBootTest
+@ActiveProfiles({"shards-local", "rebalance"})
+class RebalanceProfileTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void startsNoScheduledJobsOrStartupTasks() {
+        assertThat(context.getBeanNamesForType(ScheduledAnnotationBeanPostProcessor.class)).isEmpty();
+        assertThat(context.getBeanNamesForType(ApplicationRunner.class)).containsExactly("shardRebalanceCommand");
+    }
+}
@@ -0,0 +1,112 @@
+package com.nuwandev.cms.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing between an in-memory H2 primary and replica, each holding one row that names it.
+ */
+class ReadReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writes;
+    private TransactionTemplate reads;
+
+    @BeforeEach
+    void setUp() {
+        ReplicaPool replicas = new ReplicaPool(List.of(new ReplicaPool.Replica("replica", database("replica"))),
+                null, Duration.ofSeconds(5), Duration.ofSeconds(1));
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(database("primary"), replicas);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writes = new TransactionTemplate(transactionManager);
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+    }
+
+    @AfterEach
+    void clear() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToTheReplica() {
+        assertThat(readNode()).isEqualTo("replica");
+    }
+
+    @Test
+    void requestThatWroteReadsFromThePrimaryUntilItEnds() {
+        ReadYourWrites.beginScope();
+        write();
+
+        assertThat(readNode()).isEqualTo("primary");
+        ReadYourWrites.clear();
+        assertThat(readNode()).isEqualTo("replica");
+    }
+
+    @Test
+    void writeOutsideARequestPinsOnlyItsOwnTransaction() {
+        writes.executeWithoutResult(status -> {
+            jdbc.update("UPDATE node SET writes = writes + 1");
+            assertThat(ReadYourWrites.isPinned()).isTrue();
+        });
+
+        assertThat(ReadYourWrites.isPinned()).isFalse();
+        assertThat(readNode()).isEqualTo("replica");
+    }
+
+    @Test
+    void pooledThreadIsNotLeftPinnedAfterAWrite() throws Exception {
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            worker.submit(this::write).get();
+            assertThat(worker.submit(this::readNode).get()).isEqualTo("replica");
+        } finally {
+            worker.shutdown();
+        }
+    }
+
+    @Test
+    void explicitPinHoldsUntilCleared() {
+        ReadYourWrites.pinToPrimary();
+        write();
+
+        assertThat(readNode()).isEqualTo("primary");
+    }
+
+    private void write() {
+        writes.executeWithoutResult(status -> jdbc.update("UPDATE node SET writes = writes + 1"));
+    }
+
+    private String readNode() {
+        return reads.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16) NOT NULL, writes INT NOT NULL)");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node (name, writes) VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
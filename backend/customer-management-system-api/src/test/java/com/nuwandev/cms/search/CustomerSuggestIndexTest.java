@@ -0,0 +1,91 @@
+package com.nuwandev.cms.search;
+
+import com.nuwandev.cms.domain.UuidV7;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.dto.CustomerSuggestionDto;
+import com.nuwandev.cms.enums.Status;
+import com.nuwandev.cms.event.CustomerChangedEvent;
+import com.nuwandev.cms.shard.ShardDataSources;
+import com.nuwandev.cms.shard.Shards;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The suggest index over the in-memory H2 shards of the {@code shards-local} profile: writes that reach the
+ * database without going through this instance (as another instance's would) are picked up by the sync, and
+ * customers past {@code cms.suggest.max-size} are left out.
+ */
+@SpringBootTest
+@ActiveProfiles("shards-local")
+class CustomerSuggestIndexTest {
+
+    @Autowired
+    private CustomerSuggestIndex suggestIndex;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Autowired
+    private Shards shards;
+
+    @Test
+    void syncPicksUpWritesFromOtherInstances() {
+        UUID id = UuidV7.next();
+        JdbcTemplate shard = new JdbcTemplate(shardDataSources.get(shards.shardOf(id)));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        shard.update("""
+                INSERT INTO customers (id, first_name, last_name, email, phone, status, created_at, updated_at, version)
+                VALUES (?, 'Quinten', 'Elsewhere', 'quinten@example.com', NULL, 'ACTIVE', ?, ?, 0)
+                """, bytesOf(id), now, now);
+
+        suggestIndex.syncChanges();
+        assertThat(suggestIndex.suggest("quint", 10)).extracting(CustomerSuggestionDto::getId).containsExactly(id.toString(), id.toString());
+
+        shard.update("DELETE FROM customers WHERE id = ?", bytesOf(id));
+        shard.update("INSERT INTO customer_tombstones (id, deleted_at) VALUES (?, ?)", bytesOf(id), Timestamp.valueOf(LocalDateTime.now()));
+
+        suggestIndex.syncChanges();
+        assertThat(suggestIndex.suggest("quint", 10)).isEmpty();
+    }
+
+    @Test
+    void customersPastTheSizeCapAreLeftOut() {
+        long customerBytes = SuggestSnapshot.bytes("First", "Last", "cap00@example.com");
+        CustomerSuggestIndex capped = new CustomerSuggestIndex(null, null, shards, DataSize.ofBytes(2 * customerBytes),
+                10_000, false, Duration.ofSeconds(5), 50_000);
+
+        CustomerResponseDto first = customer("cap01@example.com");
+        capped.onCustomerChanged(CustomerChangedEvent.created(first));
+        capped.onCustomerChanged(CustomerChangedEvent.created(customer("cap02@example.com")));
+        capped.onCustomerChanged(CustomerChangedEvent.created(customer("cap03@example.com")));
+        assertThat(capped.suggest("cap", 10)).extracting(CustomerSuggestionDto::getValue)
+                .containsExactly("cap01@example.com", "cap02@example.com");
+
+        // A delete makes room for the next write.
+        capped.onCustomerChanged(CustomerChangedEvent.deleted(first));
+        capped.onCustomerChanged(CustomerChangedEvent.created(customer("cap04@example.com")));
+        assertThat(capped.suggest("cap", 10)).extracting(CustomerSuggestionDto::getValue)
+                .containsExactly("cap02@example.com", "cap04@example.com");
+    }
+
+    private static byte[] bytesOf(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private static CustomerResponseDto customer(String email) {
+        LocalDateTime now = LocalDateTime.now();
+        return new CustomerResponseDto(UuidV7.next(), "First", "Last", email, null, Status.ACTIVE, now, now, 0L);
+    }
+}
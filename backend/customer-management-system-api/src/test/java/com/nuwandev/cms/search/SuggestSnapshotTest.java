@@ -0,0 +1,110 @@
+package com.nuwandev.cms.search;
+
+import com.nuwandev.cms.domain.UuidV7;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prefix lookups, merges and size accounting of the compact suggest index, checked against a snapshot built
+ * from scratch out of the same customers.
+ */
+class SuggestSnapshotTest {
+
+    private final UUID alice = UuidV7.next();
+    private final UUID bob = UuidV7.next();
+    private final UUID carol = UuidV7.next();
+    private final UUID dave = UuidV7.next();
+
+    @Test
+    void prefixFindsTermsInTextThenIdOrder() {
+        SuggestSnapshot snapshot = build(
+                entry(carol, "Carol", "Jones", "carol@example.com"),
+                entry(bob, "bob", "SMITH", "bob@example.com"),
+                entry(alice, "Alice", "Smith", "alice@example.com"));
+
+        assertThat(lookup(snapshot, "smi")).containsExactly("smith " + alice, "smith " + bob);
+        assertThat(lookup(snapshot, "ali")).containsExactly("alice smith " + alice, "alice@example.com " + alice);
+        assertThat(lookup(snapshot, "x")).isEmpty();
+    }
+
+    @Test
+    void mergeReplacesUpdatedAndDropsRemovedCustomers() {
+        SuggestSnapshot snapshot = build(
+                entry(alice, "Alice", "Smith", "alice@example.com"),
+                entry(bob, "Bob", "Smith", "bob@example.com"),
+                entry(carol, "Carol", "Jones", "carol@example.com"));
+
+        // Bob renamed, Alice deleted, Dave created: every written customer is hidden, the live ones are re-added.
+        SuggestSnapshot merged = snapshot.merge(Set.of(alice, bob), List.of(
+                entry(bob, "Robert", "Brown", "robert@example.com"),
+                entry(dave, "Dave", "Smith", "dave@example.com")));
+
+        assertThat(merged.size()).isEqualTo(3);
+        assertThat(merged.slotOf(alice)).isEqualTo(-1);
+        assertThat(lookup(merged, "smi")).containsExactly("smith " + dave);
+        assertThat(lookup(merged, "bob")).isEmpty();
+        assertThat(lookup(merged, "rob")).containsExactly("robert brown " + bob, "robert@example.com " + bob);
+        assertThat(lookup(merged, "")).containsExactlyElementsOf(lookup(build(
+                entry(bob, "Robert", "Brown", "robert@example.com"),
+                entry(carol, "Carol", "Jones", "carol@example.com"),
+                entry(dave, "Dave", "Smith", "dave@example.com")), ""));
+    }
+
+    @Test
+    void mergeOfEverythingHiddenIsEmpty() {
+        SuggestSnapshot snapshot = build(entry(alice, "Alice", "Smith", "alice@example.com"));
+
+        SuggestSnapshot merged = snapshot.merge(Set.of(alice), List.of());
+
+        assertThat(merged.size()).isZero();
+        assertThat(merged.bytes()).isZero();
+        assertThat(lookup(merged, "")).isEmpty();
+    }
+
+    @Test
+    void bytesCountEverySlotAndCharacter() {
+        SuggestSnapshot.Entry first = entry(alice, "Alice", "Smith", "alice@example.com");
+        SuggestSnapshot.Entry second = entry(bob, "Bob", "Smith", "bob@example.com");
+        SuggestSnapshot.Builder builder = new SuggestSnapshot.Builder();
+        builder.add(first);
+        builder.add(second);
+
+        SuggestSnapshot snapshot = builder.build();
+
+        assertThat(first.bytes()).isEqualTo(SuggestSnapshot.SLOT_BYTES + 2L * "Alice Smithalice@example.com".length());
+        assertThat(builder.bytes()).isEqualTo(first.bytes() + second.bytes());
+        assertThat(snapshot.bytes()).isEqualTo(first.bytes() + second.bytes());
+        assertThat(snapshot.merge(Set.of(alice), List.of()).bytes()).isEqualTo(second.bytes());
+    }
+
+    private static SuggestSnapshot build(SuggestSnapshot.Entry... entries) {
+        SuggestSnapshot.Builder builder = new SuggestSnapshot.Builder();
+        for (SuggestSnapshot.Entry entry : entries) {
+            builder.add(entry);
+        }
+        return builder.build();
+    }
+
+    /** Every term starting with {@code prefix}, as "term id", in snapshot order. */
+    private static List<String> lookup(SuggestSnapshot snapshot, String prefix) {
+        List<String> terms = new ArrayList<>();
+        for (int index = snapshot.firstTermAtOrAfter(prefix); index < snapshot.termCount(); index++) {
+            int ref = snapshot.termRef(index);
+            if (!snapshot.termStartsWith(ref, prefix)) {
+                break;
+            }
+            terms.add(snapshot.term(ref) + " " + snapshot.id(ref >>> 2));
+        }
+        return terms;
+    }
+
+    private static SuggestSnapshot.Entry entry(UUID id, String firstName, String lastName, String email) {
+        return new SuggestSnapshot.Entry(id, firstName, lastName, email);
+    }
+}
@@ -0,0 +1,182 @@
+package com.nuwandev.cms.service;
+
+import com.nuwandev.cms.dto.CustomerCreateRequestDto;
+import com.nuwandev.cms.dto.CustomerCursorPageResponseDto;
+import com.nuwandev.cms.dto.CustomerImportResultDto;
+import com.nuwandev.cms.dto.CustomerPageResponseDto;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.enums.CountMode;
+import com.nuwandev.cms.enums.CustomerSortField;
+import com.nuwandev.cms.enums.DataFormat;
+import com.nuwandev.cms.enums.SortDirection;
+import com.nuwandev.cms.enums.Status;
+import com.nuwandev.cms.exception.CustomerAlreadyExistsException;
+import com.nuwandev.cms.shard.ShardDataSources;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The customer service over the three in-memory H2 shards of the {@code shards-local} profile. Listings are
+ * checked against the order a single database returns for the same rows: every shard's customers are copied
+ * into one more H2 database and listed there with {@code ORDER BY sort, id}.
+ */
+@SpringBootTest
+@ActiveProfiles("shards-local")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ShardedCustomerServiceTest {
+
+    private static final String COLUMNS = "id, first_name, last_name, email, phone, status, created_at, updated_at, version";
+    private static final int PAGE_SIZE = 7;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    private JdbcTemplate reference;
+
+    @BeforeAll
+    void seed() {
+        // Case, accents and repeated names, so the merge has to agree with the database on text order and ids.
+        List<String> firstNames = List.of("alice", "Bob", "Émile", "zoë", "Zed", "bob", "Ana", "émile", "Ölaf", "ALICE");
+        List<String> lastNames = List.of("Smith", "smith", "Østergaard", "Adams", "adams", "Zúñiga");
+        for (int i = 0; i < 60; i++) {
+            customerService.createCustomer(new CustomerCreateRequestDto(
+                    firstNames.get(i % firstNames.size()),
+                    lastNames.get(i % lastNames.size()),
+                    "order" + (59 - i) + "@example.com",
+                    null,
+                    Status.ACTIVE));
+        }
+
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sharded-service-reference;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        reference = new JdbcTemplate(dataSource);
+    }
+
+    static Stream<Arguments> listings() {
+        return Arrays.stream(CustomerSortField.values())
+                .flatMap(sort -> Arrays.stream(SortDirection.values()).map(order -> Arguments.of(sort, order)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("listings")
+    void cursorPagesFollowSingleDatabaseOrder(CustomerSortField sort, SortDirection order) {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CustomerCursorPageResponseDto page = customerService.getCustomersByCursor(cursor, PAGE_SIZE, sort, order, null);
+            page.getContent().forEach(customer -> ids.add(customer.getId()));
+            cursor = Boolean.TRUE.equals(page.getHasNext()) ? page.getNextCursor() : null;
+        } while (cursor != null);
+
+        assertThat(ids).containsExactlyElementsOf(singleDatabaseOrder(sort, order));
+    }
+
+    @ParameterizedTest
+    @MethodSource("listings")
+    void offsetPagesFollowSingleDatabaseOrder(CustomerSortField sort, SortDirection order) {
+        List<String> ids = new ArrayList<>();
+        CustomerPageResponseDto page;
+        int number = 0;
+        do {
+            page = customerService.getCustomers(number++, PAGE_SIZE, sort, order, null, CountMode.NONE);
+            page.getContent().forEach(customer -> ids.add(customer.getId()));
+        } while (Boolean.TRUE.equals(page.getHasNext()));
+
+        assertThat(ids).containsExactlyElementsOf(singleDatabaseOrder(sort, order));
+    }
+
+    @Test
+    void emailIsUniqueAcrossShards() {
+        CustomerResponseDto first = customerService.createCustomer(
+                new CustomerCreateRequestDto("Ann", "Lee", "ann.lee@example.com", null, Status.ACTIVE));
+
+        // Each attempt gets a fresh id, so most land on another shard than the first; only the directory refuses them.
+        for (int i = 0; i < 6; i++) {
+            assertThatThrownBy(() -> customerService.createCustomer(
+                    new CustomerCreateRequestDto("Ann", "Lee", "ANN.Lee@example.com", null, Status.ACTIVE)))
+                    .isInstanceOf(CustomerAlreadyExistsException.class);
+        }
+        assertThat(countByEmail("ann.lee@example.com")).isEqualTo(1);
+
+        customerService.deleteCustomer(first.getId());
+        customerService.createCustomer(new CustomerCreateRequestDto("Ann", "Lee", "Ann.Lee@example.com", null, Status.ACTIVE));
+        assertThat(countByEmail("ann.lee@example.com")).isEqualTo(1);
+    }
+
+    @Test
+    void importRefusesEmailsTakenOnAnyShard() throws Exception {
+        customerService.createCustomer(new CustomerCreateRequestDto("Kim", "Park", "kim.park@example.com", null, Status.ACTIVE));
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            rows.append("{\"firstName\":\"Import\",\"lastName\":\"Row\",\"email\":\"import").append(i).append("@example.com\"}\n");
+        }
+        rows.append("{\"firstName\":\"Kim\",\"lastName\":\"Park\",\"email\":\"KIM.PARK@example.com\"}\n");
+
+        CustomerImportResultDto result = customerService.importCustomers(
+                new ByteArrayInputStream(rows.toString().getBytes(StandardCharsets.UTF_8)), DataFormat.NDJSON);
+
+        assertThat(result.getImported()).isEqualTo(10);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(countByEmail("kim.park@example.com")).isEqualTo(1);
+    }
+
+    private List<String> singleDatabaseOrder(CustomerSortField sort, SortDirection order) {
+        reference.update("DELETE FROM customers");
+        for (HikariDataSource shard : shardDataSources.all()) {
+            List<Object[]> rows = new JdbcTemplate(shard).query("SELECT " + COLUMNS + " FROM customers", (rs, rowNum) -> {
+                Object[] row = new Object[9];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = rs.getObject(i + 1);
+                }
+                return row;
+            });
+            reference.batchUpdate("INSERT INTO customers (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        }
+        String column = sort.getField().replaceAll("([A-Z])", "_$1").toLowerCase(Locale.ROOT);
+        String direction = order == SortDirection.ASC ? "ASC" : "DESC";
+        return reference.query("SELECT id FROM customers ORDER BY " + column + " " + direction + ", id " + direction,
+                (rs, rowNum) -> uuidOf(rs.getBytes(1)));
+    }
+
+    private long countByEmail(String email) {
+        long count = 0;
+        for (HikariDataSource shard : shardDataSources.all()) {
+            count += new JdbcTemplate(shard).queryForObject("SELECT COUNT(*) FROM customers WHERE email = ?", Long.class, email);
+        }
+        return count;
+    }
+
+    private static String uuidOf(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
+    }
+}
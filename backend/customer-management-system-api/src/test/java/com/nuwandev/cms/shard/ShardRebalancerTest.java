@@ -0,0 +1,128 @@
+package com.nuwandev.cms.shard;
+
+import com.nuwandev.cms.domain.UuidV7;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Appends a third in-memory H2 shard to two populated ones and checks that the rebalancer moves exactly the
+ * customers whose id now hashes to it, with their search tokens, and repairs the email directory.
+ */
+class ShardRebalancerTest {
+
+    private static final int CUSTOMERS = 90;
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void appendedShardReceivesTheCustomersThatHashToIt() {
+        ShardDataSources twoShards = new ShardDataSources(List.of(shard("a-0"), shard("a-1")));
+        Shards before = shards(2);
+        ShardEmailDirectory directory = new ShardEmailDirectory(twoShards.get(0));
+        Map<UUID, Integer> placed = new HashMap<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            UUID id = UuidV7.next();
+            int shard = before.shardOf(id);
+            insertCustomer(twoShards.get(shard), id, "customer" + i + "@example.com");
+            directory.reserve("customer" + i + "@example.com", id);
+            placed.put(id, shard);
+        }
+
+        ShardDataSources threeShards = new ShardDataSources(List.of(twoShards.get(0), twoShards.get(1), shard("a-2")));
+        Shards after = shards(3);
+        ShardRebalancer.Report report = new ShardRebalancer(threeShards, after, directory, 7).rebalance();
+
+        long expectedMoves = placed.entrySet().stream().filter(entry -> after.shardOf(entry.getKey()) != entry.getValue()).count();
+        assertThat(expectedMoves).isPositive();
+        assertThat(report.moved()).isEqualTo(expectedMoves);
+        assertThat(report.directoryEntriesAdded()).isZero();
+        assertThat(report.directoryEntriesRemoved()).isZero();
+        // Jump hashing only ever moves a customer to the appended shard.
+        placed.forEach((id, shard) -> assertThat(after.shardOf(id)).isIn(shard, 2));
+        for (UUID id : placed.keySet()) {
+            int shard = after.shardOf(id);
+            for (int other = 0; other < 3; other++) {
+                assertThat(countCustomer(threeShards.get(other), id)).isEqualTo(other == shard ? 1 : 0);
+                assertThat(countTokens(threeShards.get(other), id)).isEqualTo(other == shard ? 1 : 0);
+            }
+        }
+
+        ShardRebalancer.Report rerun = new ShardRebalancer(threeShards, after, directory, 7).rebalance();
+        assertThat(rerun.moved()).isZero();
+    }
+
+    @Test
+    void directoryIsRepaired() {
+        ShardDataSources dataSources = new ShardDataSources(List.of(shard("b-0"), shard("b-1")));
+        Shards shards = shards(2);
+        ShardEmailDirectory directory = new ShardEmailDirectory(dataSources.get(0));
+
+        UUID unlisted = UuidV7.next();
+        insertCustomer(dataSources.get(shards.shardOf(unlisted)), unlisted, "Unlisted@Example.com");
+        // A crash between reserving an email and inserting the customer.
+        directory.reserve("orphan@example.com", UuidV7.next());
+
+        ShardRebalancer.Report report = new ShardRebalancer(dataSources, shards, directory, 10).rebalance();
+
+        assertThat(report.directoryEntriesAdded()).isEqualTo(1);
+        assertThat(report.directoryEntriesRemoved()).isEqualTo(1);
+        assertThat(directory.findExisting(List.of("unlisted@example.com", "orphan@example.com")))
+                .containsExactly("unlisted@example.com");
+    }
+
+    private HikariDataSource shard(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:rebalance-" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        pools.add(dataSource);
+        return dataSource;
+    }
+
+    private static Shards shards(int count) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        for (int i = 0; i < count; i++) {
+            properties.getShards().add(new ShardingProperties.Shard());
+        }
+        return new Shards(new StaticListableBeanFactory(Map.of("shardingProperties", properties)).getBeanProvider(ShardingProperties.class));
+    }
+
+    private static void insertCustomer(HikariDataSource dataSource, UUID id, String email) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.update("""
+                INSERT INTO customers (id, first_name, last_name, email, phone, status, created_at, updated_at, version)
+                VALUES (?, 'First', 'Last', ?, NULL, 'ACTIVE', ?, ?, 0)
+                """, ShardEmailDirectory.toBytes(id), email, now, now);
+        jdbc.update("INSERT INTO customer_search_tokens (token, customer_id, weight) VALUES ('fir', ?, 1)", ShardEmailDirectory.toBytes(id));
+    }
+
+    private static int countCustomer(HikariDataSource dataSource, UUID id) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM customers WHERE id = ?", Integer.class, ShardEmailDirectory.toBytes(id));
+    }
+
+    private static int countTokens(HikariDataSource dataSource, UUID id) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM customer_search_tokens WHERE customer_id = ?", Integer.class, ShardEmailDirectory.toBytes(id));
+    }
+}
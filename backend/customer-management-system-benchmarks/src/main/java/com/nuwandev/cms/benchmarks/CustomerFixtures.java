@@ -0,0 +1,42 @@
+package com.nuwandev.cms.benchmarks;
+
+import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.domain.UuidV7;
+import com.nuwandev.cms.enums.Status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic customers shaped like production rows, so every run measures the same input.
+ */
+final class CustomerFixtures {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 1, 1, 9, 30);
+
+    private CustomerFixtures() {
+    }
+
+    static Customer customer(int i) {
+        return new Customer(
+                UuidV7.next(),
+                "First" + i,
+                "Last" + (i % 997),
+                "customer" + i + "@example.com",
+                "+1555" + String.format("%07d", i),
+                i % 10 == 0 ? Status.INACTIVE : Status.ACTIVE,
+                BASE_TIME.plusMinutes(i),
+                BASE_TIME.plusMinutes(i).plusDays(1),
+                (long) (i % 5)
+        );
+    }
+
+    static List<Customer> customers(int count) {
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            customers.add(customer(i));
+        }
+        return customers;
+    }
+}
@@ -0,0 +1,158 @@
+package com.nuwandev.cms.benchmarks;
+
+import com.nuwandev.cms.domain.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows inserted per second into a customers table that already holds {@code rows} customers, keyed the old way
+ * (random UUID strings in a {@code VARCHAR(36)} primary key) or the new way (UUIDv7 in {@code BINARY(16)}).
+ * Random keys land all over the clustered index, so once it outgrows the buffer pool most inserts read and split
+ * a page; time-ordered keys append to its right-most page. The unique email index carries the primary key too.
+ * <p>
+ * Runs against an H2 file database by default. The numbers that matter come from MySQL/InnoDB, e.g.
+ * {@code -p url=jdbc:mysql://localhost:3306/cms_bench?rewriteBatchedStatements=true -p user=... -p password=...}.
+ * Filling 10M rows takes several minutes per key type; {@code -p rows=1000000} gives a quicker, smaller gap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@OperationsPerInvocation(CustomerIdInsertBenchmark.BATCH)
+public class CustomerIdInsertBenchmark {
+
+    static final int BATCH = 1000;
+
+    public enum KeyType {
+        VARCHAR_RANDOM("VARCHAR(36)") {
+            @Override
+            Object next() {
+                return UUID.randomUUID().toString();
+            }
+        },
+        BINARY_V7("BINARY(16)") {
+            @Override
+            Object next() {
+                UUID id = UuidV7.next();
+                return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+            }
+        };
+
+        private final String columnType;
+
+        KeyType(String columnType) {
+            this.columnType = columnType;
+        }
+
+        abstract Object next();
+    }
+
+    @Param({"VARCHAR_RANDOM", "BINARY_V7"})
+    KeyType keyType;
+
+    /** Customers in the table before measuring starts. */
+    @Param("10000000")
+    long rows;
+
+    @Param("jdbc:h2:file:./target/id-insert-benchmark/cms;MODE=MySQL;DATABASE_TO_LOWER=TRUE")
+    String url;
+
+    @Param("sa")
+    String user;
+
+    @Param("")
+    String password;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private long inserted;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(url, user, password);
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS customers_id_benchmark");
+            ddl.execute("""
+                    CREATE TABLE customers_id_benchmark
+                    (
+                        id         %s           NOT NULL,
+                        first_name VARCHAR(255) NOT NULL,
+                        last_name  VARCHAR(255) NOT NULL,
+                        email      VARCHAR(255) NOT NULL,
+                        phone      VARCHAR(255),
+                        status     VARCHAR(16)  NOT NULL,
+                        created_at DATETIME(6)  NOT NULL,
+                        updated_at DATETIME(6),
+                        PRIMARY KEY (id),
+                        CONSTRAINT uk_customers_id_benchmark_email UNIQUE (email)
+                    )
+                    """.formatted(keyType.columnType));
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("""
+                INSERT INTO customers_id_benchmark (id, first_name, last_name, email, phone, status, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """);
+        while (inserted < rows) {
+            insert((int) Math.min(BATCH, rows - inserted));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE customers_id_benchmark");
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    /** One batch of {@link #BATCH} rows in one transaction, the way the bulk import writes them. */
+    @Benchmark
+    public void insertBatch() throws SQLException {
+        insert(BATCH);
+    }
+
+    private void insert(int count) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < count; i++) {
+            long n = inserted++;
+            insert.setObject(1, keyType.next());
+            insert.setString(2, "First" + n % 1000);
+            insert.setString(3, "Last" + n % 5000);
+            insert.setString(4, "customer" + n + "@example.com");
+            insert.setString(5, "+1555" + n % 10_000_000);
+            insert.setString(6, "ACTIVE");
+            insert.setTimestamp(7, now);
+            insert.setTimestamp(8, now);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+}
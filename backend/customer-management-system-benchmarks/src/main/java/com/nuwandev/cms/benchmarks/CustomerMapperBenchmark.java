@@ -0,0 +1,55 @@
+package com.nuwandev.cms.benchmarks;
+
+import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.mapper.CustomerMapper;
+import com.nuwandev.cms.mapper.CustomerMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping, per customer and per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerMapperBenchmark {
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    private final CustomerMapper mapper = new CustomerMapperImpl();
+    private Customer customer;
+    private List<Customer> page;
+
+    @Setup
+    public void setUp() {
+        customer = CustomerFixtures.customer(42);
+        page = CustomerFixtures.customers(pageSize);
+    }
+
+    @Benchmark
+    public CustomerResponseDto toDto() {
+        return mapper.toDto(customer);
+    }
+
+    @Benchmark
+    public List<CustomerResponseDto> toDtoList() {
+        return mapper.toDtoList(page);
+    }
+}
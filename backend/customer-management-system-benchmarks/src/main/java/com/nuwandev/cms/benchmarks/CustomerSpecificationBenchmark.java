@@ -0,0 +1,77 @@
+package com.nuwandev.cms.benchmarks;
+
+import com.nuwandev.cms.domain.Customer;
+import com.nuwandev.cms.domain.CustomerSearchToken;
+import com.nuwandev.cms.specification.CustomerSpecification;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the list/search predicate tree: tokenizing the search term and creating the Criteria nodes,
+ * without rendering or running SQL. Hibernate is bootstrapped once against an in-memory H2 database for
+ * its metamodel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerSpecificationBenchmark {
+
+    /** A short term (no index tokens), a name, and an email fragment. */
+    @Param({"jo", "john", "john.smith@exa"})
+    String search;
+
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder cb;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Customer.class)
+                .addAnnotatedClass(CustomerSearchToken.class)
+                .setProperty("jakarta.persistence.jdbc.url", "jdbc:h2:mem:specification-benchmark;MODE=MySQL")
+                .setProperty("jakarta.persistence.jdbc.user", "sa")
+                .setProperty("jakarta.persistence.jdbc.password", "")
+                .buildSessionFactory();
+        cb = sessionFactory.getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Predicate all() {
+        CriteriaQuery<Customer> query = cb.createQuery(Customer.class);
+        Root<Customer> root = query.from(Customer.class);
+        return CustomerSpecification.all().toPredicate(root, query, cb);
+    }
+
+    @Benchmark
+    public Predicate search() {
+        CriteriaQuery<Customer> query = cb.createQuery(Customer.class);
+        Root<Customer> root = query.from(Customer.class);
+        return CustomerSpecification.search(search).toPredicate(root, query, cb);
+    }
+}
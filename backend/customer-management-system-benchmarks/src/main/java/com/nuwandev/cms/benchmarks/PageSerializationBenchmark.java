@@ -0,0 +1,97 @@
+package com.nuwandev.cms.benchmarks;
+
+import com.nuwandev.cms.dto.CustomerPageResponseDto;
+import com.nuwandev.cms.mapper.CustomerMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding of a list response, the last step of every {@code GET /api/v1/customers}, in each format the API
+ * negotiates. Besides the CPU cost of writing, reading, and writing plus gzip (what {@code server.compression}
+ * adds), setup prints the bytes on the wire, raw and gzipped, as a {@code wire-size} line per format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    private ObjectMapper mapper;
+    private CustomerPageResponseDto page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        mapper = switch (format) {
+            case "json" -> JsonMapper.builder().build();
+            case "cbor" -> CBORMapper.builder().build();
+            case "smile" -> SmileMapper.builder().build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        page = new CustomerPageResponseDto(
+                new CustomerMapperImpl().toDtoList(CustomerFixtures.customers(pageSize)),
+                3,
+                pageSize,
+                10_000,
+                (10_000 + pageSize - 1) / pageSize,
+                false,
+                false,
+                true
+        );
+        encoded = mapper.writeValueAsBytes(page);
+        System.out.printf("%nwire-size format=%s pageSize=%d bytes=%d gzipped=%d%n",
+                format, pageSize, encoded.length, gzip(encoded).length);
+    }
+
+    @Benchmark
+    public byte[] writePage() {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public CustomerPageResponseDto readPage() {
+        return mapper.readValue(encoded, CustomerPageResponseDto.class);
+    }
+
+    @Benchmark
+    public byte[] writePageGzipped() {
+        return gzip(mapper.writeValueAsBytes(page));
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
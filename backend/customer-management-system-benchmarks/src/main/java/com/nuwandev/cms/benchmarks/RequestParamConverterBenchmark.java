@@ -0,0 +1,50 @@
+package com.nuwandev.cms.benchmarks;
+
+import com.nuwandev.cms.config.CustomerSortFieldConverter;
+import com.nuwandev.cms.config.SortDirectionConverter;
+import com.nuwandev.cms.enums.CustomerSortField;
+import com.nuwandev.cms.enums.SortDirection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code sort} and {@code order} request parameter converters, run on every list and cursor request.
+ * Inputs cover the spellings clients send: the camelCase field, snake_case, the enum name and a default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestParamConverterBenchmark {
+
+    @Param({"createdAt", "first_name", "LAST_NAME", ""})
+    String sort;
+
+    @Param({"asc", "DESC"})
+    String order;
+
+    private final CustomerSortFieldConverter sortFieldConverter = new CustomerSortFieldConverter();
+    private final SortDirectionConverter sortDirectionConverter = new SortDirectionConverter();
+
+    @Benchmark
+    public CustomerSortField sortField() {
+        return sortFieldConverter.convert(sort);
+    }
+
+    @Benchmark
+    public SortDirection sortDirection() {
+        return sortDirectionConverter.convert(order);
+    }
+}
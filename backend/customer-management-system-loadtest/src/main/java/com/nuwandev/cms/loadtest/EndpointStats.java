@@ -0,0 +1,52 @@
+package com.nuwandev.cms.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error count of one endpoint. Recording is wait-free, so clients never contend on it.
+ */
+final class EndpointStats {
+
+    private static final long MAX_TRACKED_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Recorder recorder = new Recorder(MAX_TRACKED_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    void record(long nanos, boolean ok) {
+        recorder.recordValue(Math.min(nanos, MAX_TRACKED_NANOS));
+        if (!ok) {
+            errors.increment();
+        }
+    }
+
+    /** Drops everything recorded so far, e.g. at the end of the warmup. */
+    void reset() {
+        recorder.reset();
+        errors.reset();
+    }
+
+    Snapshot snapshot(double seconds) {
+        Histogram histogram = recorder.getIntervalHistogram();
+        return new Snapshot(
+                histogram.getTotalCount(),
+                errors.sum(),
+                histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(95)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue())
+        );
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    record Snapshot(long requests, long errors, double throughput, double p50, double p95, double p99, double p999, double max) {
+    }
+}
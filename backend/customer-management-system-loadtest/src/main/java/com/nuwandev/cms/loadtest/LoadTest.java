@@ -0,0 +1,152 @@
+package com.nuwandev.cms.loadtest;
+
+import com.nuwandev.cms.Main;
+import com.nuwandev.cms.dto.CustomerCursorPageResponseDto;
+import com.nuwandev.cms.dto.CustomerImportResultDto;
+import com.nuwandev.cms.dto.CustomerResponseDto;
+import com.nuwandev.cms.enums.CustomerSortField;
+import com.nuwandev.cms.enums.DataFormat;
+import com.nuwandev.cms.enums.SortDirection;
+import com.nuwandev.cms.service.CustomerService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Boots the API on a random port against an in-memory H2 database in MySQL mode, seeds it, runs the
+ * {@link Workload} for a warmup and a measured interval, then prints and writes per-endpoint results and the heap
+ * allocated per request (server and clients together, as they share the JVM).
+ * Fails with an exception (so {@code mvn verify -Ploadtest} fails) when an SLO is breached.
+ */
+public final class LoadTest {
+
+    private static final int SAMPLED_IDS = 10_000;
+    private static final String PROFILE = "loadtest";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        // H2, a random port and no load shedding come from application-loadtest.yml; -Dspring.* system properties
+        // still win, e.g. to point the run at a real MySQL.
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(Main.class).profiles(PROFILE).run(args);
+             ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = app.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            URI base = URI.create("http://localhost:" + port + "/api/v1/customers");
+            CustomerService customerService = app.getBean(CustomerService.class);
+
+            System.out.printf("Seeding %d customers%n", settings.customers());
+            CustomerImportResultDto seeded = customerService.importCustomers(new SyntheticCustomers(settings.customers()), DataFormat.NDJSON);
+            System.out.printf("Seeded %d customers in %d ms%n", seeded.getImported(), seeded.getDurationMs());
+
+            List<String> ids = sampleIds(customerService);
+            Workload workload = new Workload(base, settings, ids, clientExecutor);
+
+            System.out.printf("Warming up for %s with %d clients%n", settings.warmup(), settings.concurrency());
+            workload.run(settings.warmup());
+            workload.reset();
+
+            System.out.printf("Measuring for %s%n", settings.duration());
+            long allocatedBefore = allocatedBytes();
+            long started = System.nanoTime();
+            workload.run(settings.duration());
+            double seconds = (System.nanoTime() - started) / 1e9;
+            long allocated = allocatedBytes() - allocatedBefore;
+
+            Map<Operation, EndpointStats.Snapshot> results = workload.snapshot(seconds);
+            long requests = results.values().stream().mapToLong(EndpointStats.Snapshot::requests).sum();
+            long allocatedPerRequest = requests == 0 ? 0 : allocated / requests;
+            List<String> breaches = breaches(settings, results);
+            print(results, settings);
+            System.out.printf("Heap allocated: %.1f MB/s, %d bytes per request%n%n", allocated / seconds / 1_000_000, allocatedPerRequest);
+            writeReport(settings, results, allocatedPerRequest, breaches);
+
+            if (!breaches.isEmpty()) {
+                throw new IllegalStateException("Load test SLOs breached:\n  " + String.join("\n  ", breaches));
+            }
+            System.out.println("All SLOs met");
+        }
+    }
+
+    private static List<String> sampleIds(CustomerService customerService) {
+        List<String> ids = new ArrayList<>(SAMPLED_IDS);
+        String cursor = null;
+        do {
+            CustomerCursorPageResponseDto page = customerService.getCustomersByCursor(cursor, 100, CustomerSortField.CREATED_AT, SortDirection.ASC, null);
+            page.getContent().stream().map(CustomerResponseDto::getId).forEach(ids::add);
+            cursor = Boolean.TRUE.equals(page.getHasNext()) ? page.getNextCursor() : null;
+        } while (cursor != null && ids.size() < SAMPLED_IDS);
+
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No customers to read; set -Dloadtest.customers to at least 1");
+        }
+        return ids;
+    }
+
+    private static List<String> breaches(LoadTestSettings settings, Map<Operation, EndpointStats.Snapshot> results) {
+        List<String> breaches = new ArrayList<>();
+        long requests = 0;
+        long errors = 0;
+        for (Map.Entry<Operation, EndpointStats.Snapshot> entry : results.entrySet()) {
+            Operation operation = entry.getKey();
+            EndpointStats.Snapshot result = entry.getValue();
+            requests += result.requests();
+            errors += result.errors();
+            long limit = settings.p99SloMillis().get(operation);
+            if (result.requests() > 0 && result.p99() > limit) {
+                breaches.add(String.format("%s p99 %.1f ms > %d ms", operation.endpoint(), result.p99(), limit));
+            }
+        }
+        double errorRate = requests == 0 ? 0 : (double) errors / requests;
+        if (errorRate > settings.maxErrorRate()) {
+            breaches.add(String.format("error rate %.4f > %.4f (%d of %d requests)", errorRate, settings.maxErrorRate(), errors, requests));
+        }
+        return breaches;
+    }
+
+    private static void print(Map<Operation, EndpointStats.Snapshot> results, LoadTestSettings settings) {
+        System.out.printf("%n%-34s %9s %7s %9s %8s %8s %8s %8s %8s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "p99 SLO");
+        results.forEach((operation, r) -> System.out.printf("%-34s %9d %7d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %9d%n",
+                operation.endpoint(), r.requests(), r.errors(), r.throughput(), r.p50(), r.p95(), r.p99(), r.p999(), r.max(),
+                settings.p99SloMillis().get(operation)));
+        System.out.println();
+    }
+
+    /** Bytes allocated by all threads since the JVM started; virtual threads count on their carriers. */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+    }
+
+    private static void writeReport(LoadTestSettings settings, Map<Operation, EndpointStats.Snapshot> results, long allocatedPerRequest,
+                                    List<String> breaches) throws Exception {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        results.forEach((operation, result) -> endpoints.put(operation.endpoint(), result));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("customers", settings.customers());
+        report.put("concurrency", settings.concurrency());
+        report.put("durationSeconds", settings.duration().toSeconds());
+        report.put("endpoints", endpoints);
+        report.put("allocatedBytesPerRequest", allocatedPerRequest);
+        report.put("sloBreaches", breaches);
+
+        if (settings.report().getParent() != null) {
+            Files.createDirectories(settings.report().getParent());
+        }
+        Files.write(settings.report(), JsonMapper.builder().build().writerWithDefaultPrettyPrinter().writeValueAsBytes(report));
+        System.out.printf("Report written to %s%n", settings.report().toAbsolutePath());
+    }
+}
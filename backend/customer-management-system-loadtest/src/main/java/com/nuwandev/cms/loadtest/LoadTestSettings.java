@@ -0,0 +1,50 @@
+package com.nuwandev.cms.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Run parameters, read from {@code -Dloadtest.*} system properties:
+ * <ul>
+ *     <li>{@code customers} - synthetic customers seeded before the run (default 10000)</li>
+ *     <li>{@code concurrency} - concurrent clients, each with one request in flight (default 8 per
+ *     available processor, so the default run does not just measure CPU starvation on a small host)</li>
+ *     <li>{@code warmup}, {@code duration} - ISO-8601 durations (default PT15S, PT60S)</li>
+ *     <li>{@code weight.<operation>} - relative share of each operation, see {@link Operation}</li>
+ *     <li>{@code slo.p99.<operation>} - p99 latency limit in milliseconds</li>
+ *     <li>{@code slo.max-error-rate} - limit on failed requests across all operations (default 0.001)</li>
+ *     <li>{@code report} - JSON report path (default target/loadtest-report.json)</li>
+ * </ul>
+ */
+record LoadTestSettings(
+        int customers,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<Operation, Integer> weights,
+        Map<Operation, Long> p99SloMillis,
+        double maxErrorRate,
+        Path report
+) {
+
+    static LoadTestSettings fromSystemProperties() {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        Map<Operation, Long> p99SloMillis = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, Integer.getInteger("loadtest.weight." + operation.key(), operation.defaultWeight()));
+            p99SloMillis.put(operation, Long.getLong("loadtest.slo.p99." + operation.key(), operation.defaultP99Millis()));
+        }
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.customers", 10_000),
+                Integer.getInteger("loadtest.concurrency", 8 * Runtime.getRuntime().availableProcessors()),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                weights,
+                p99SloMillis,
+                Double.parseDouble(System.getProperty("loadtest.slo.max-error-rate", "0.001")),
+                Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json"))
+        );
+    }
+}
@@ -0,0 +1,41 @@
+package com.nuwandev.cms.loadtest;
+
+/**
+ * The {@code CustomerController} endpoints the workload drives, with the default share of requests and p99 SLO.
+ */
+enum Operation {
+
+    LIST("GET /api/v1/customers", 30, 250),
+    SEARCH("GET /api/v1/customers/search", 20, 250),
+    GET("GET /api/v1/customers/{id}", 35, 50),
+    CREATE("POST /api/v1/customers", 6, 250),
+    UPDATE("PUT /api/v1/customers/{id}", 6, 250),
+    DELETE("DELETE /api/v1/customers/{id}", 3, 250);
+
+    private final String endpoint;
+    private final int defaultWeight;
+    private final long defaultP99Millis;
+
+    Operation(String endpoint, int defaultWeight, long defaultP99Millis) {
+        this.endpoint = endpoint;
+        this.defaultWeight = defaultWeight;
+        this.defaultP99Millis = defaultP99Millis;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    int defaultWeight() {
+        return defaultWeight;
+    }
+
+    long defaultP99Millis() {
+        return defaultP99Millis;
+    }
+
+    /** Property suffix, e.g. {@code loadtest.weight.list}. */
+    String key() {
+        return name().toLowerCase();
+    }
+}
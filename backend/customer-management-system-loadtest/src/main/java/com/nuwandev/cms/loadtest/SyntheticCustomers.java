@@ -0,0 +1,62 @@
+package com.nuwandev.cms.loadtest;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * NDJSON stream of generated customers for the bulk import endpoint, produced line by line so seeding a
+ * large table does not hold the whole payload in memory.
+ */
+final class SyntheticCustomers extends InputStream {
+
+    /** Distinct last names, so search terms hit a predictable share of the table. */
+    static final int LAST_NAMES = 997;
+
+    private final int count;
+    private int next;
+    private byte[] line = new byte[0];
+    private int position;
+
+    SyntheticCustomers(int count) {
+        this.count = count;
+    }
+
+    static String lastName(int i) {
+        return "Last" + (i % LAST_NAMES);
+    }
+
+    @Override
+    public int read() {
+        if (position == line.length && !advance()) {
+            return -1;
+        }
+        return line[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (position == line.length && !advance()) {
+            return -1;
+        }
+        int n = Math.min(length, line.length - position);
+        System.arraycopy(line, position, buffer, offset, n);
+        position += n;
+        return n;
+    }
+
+    private boolean advance() {
+        if (next == count) {
+            return false;
+        }
+        int i = next++;
+        line = ("{\"firstName\":\"First" + i + "\",\"lastName\":\"" + lastName(i)
+                + "\",\"email\":\"seed" + i + "@example.com\",\"phone\":\"+1555" + String.format("%07d", i)
+                + "\",\"status\":\"" + (i % 10 == 0 ? "INACTIVE" : "ACTIVE") + "\"}\n")
+                .getBytes(StandardCharsets.UTF_8);
+        position = 0;
+        return true;
+    }
+}
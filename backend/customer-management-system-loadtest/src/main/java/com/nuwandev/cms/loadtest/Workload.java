@@ -0,0 +1,144 @@
+package com.nuwandev.cms.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop mixed workload: each client sends one request, waits for the response and immediately picks
+ * the next operation by weight. Updates and deletes only touch customers this run created, so they never race
+ * each other or starve the read mix of seeded rows.
+ */
+final class Workload {
+
+    private static final String[] SORT_FIELDS = {"createdAt", "firstName", "lastName", "email"};
+    private static final String[] ORDERS = {"asc", "desc"};
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI base;
+    private final int concurrency;
+    private final List<String> seededIds;
+    private final Operation[] mix;
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final Queue<String> created = new ConcurrentLinkedQueue<>();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final HttpClient client;
+
+    Workload(URI base, LoadTestSettings settings, List<String> seededIds, ExecutorService clientExecutor) {
+        this.base = base;
+        this.concurrency = settings.concurrency();
+        this.seededIds = seededIds;
+        this.mix = settings.weights().entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Operation[]::new);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+    }
+
+    void run(Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> loop(deadline));
+            }
+        }
+    }
+
+    void reset() {
+        stats.values().forEach(EndpointStats::reset);
+    }
+
+    Map<Operation, EndpointStats.Snapshot> snapshot(double seconds) {
+        Map<Operation, EndpointStats.Snapshot> snapshots = new EnumMap<>(Operation.class);
+        stats.forEach((operation, endpoint) -> snapshots.put(operation, endpoint.snapshot(seconds)));
+        return snapshots;
+    }
+
+    private void loop(long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            execute(mix[random.nextInt(mix.length)], random);
+        }
+    }
+
+    private void execute(Operation operation, ThreadLocalRandom random) {
+        String ownId = null;
+        if (operation == Operation.UPDATE || operation == Operation.DELETE) {
+            ownId = created.poll();
+            if (ownId == null) {
+                // Nothing of our own to change yet; create it so the write share of the mix holds.
+                operation = Operation.CREATE;
+            }
+        }
+
+        HttpRequest request = switch (operation) {
+            case LIST -> get("?page=" + random.nextInt(50) + "&size=20"
+                    + "&sort=" + SORT_FIELDS[random.nextInt(SORT_FIELDS.length)]
+                    + "&order=" + ORDERS[random.nextInt(ORDERS.length)]);
+            case SEARCH -> get("/search?q=last" + random.nextInt(SyntheticCustomers.LAST_NAMES) + "&limit=20");
+            case GET -> get("/" + seededIds.get(random.nextInt(seededIds.size())));
+            case CREATE -> json("", "POST", "{\"firstName\":\"Load\",\"lastName\":\"Test\",\"email\":\"load"
+                    + createdCount.incrementAndGet() + "-" + random.nextInt(1_000_000) + "@example.com\",\"phone\":\"+15550000000\"}");
+            case UPDATE -> json("/" + ownId, "PUT", "{\"firstName\":\"Load\",\"lastName\":\"Updated"
+                    + random.nextInt(1000) + "\",\"phone\":\"+15550000001\",\"status\":\"ACTIVE\"}");
+            case DELETE -> HttpRequest.newBuilder(URI.create(base + "/" + ownId)).timeout(REQUEST_TIMEOUT).DELETE().build();
+        };
+
+        long started = System.nanoTime();
+        boolean ok;
+        String body = null;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            ok = response.statusCode() / 100 == 2;
+            body = response.body();
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        stats.get(operation).record(System.nanoTime() - started, ok);
+
+        if (operation == Operation.CREATE && ok) {
+            Matcher id = ID.matcher(body);
+            if (id.find()) {
+                created.offer(id.group(1));
+            }
+        } else if (operation == Operation.UPDATE) {
+            created.offer(ownId);
+        }
+    }
+
+    private HttpRequest get(String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create(base + pathAndQuery)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest json(String path, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
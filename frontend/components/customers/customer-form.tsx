@@ -52,8 +52,8 @@ export function CustomerForm({ customer, mode }: CustomerFormProps) {
   });
 
   const updateMutation = useMutation({
-    mutationFn: ({ id, data }: { id: string; data: CustomerUpdateRequest }) =>
-      customersApi.updateCustomer(id, data),
+    mutationFn: ({ id, data, version }: { id: string; data: CustomerUpdateRequest; version?: number }) =>
+      customersApi.updateCustomer(id, data, version),
     onSuccess: () => {
       queryClient.invalidateQueries({ queryKey: ['customers'] });
       queryClient.invalidateQueries({ queryKey: ['customer', customer?.id] });
@@ -70,6 +70,7 @@ export function CustomerForm({ customer, mode }: CustomerFormProps) {
         await updateMutation.mutateAsync({
           id: customer.id,
           data: updateData as CustomerUpdateRequest,
+          version: customer.version,
         });
       }
     } catch (error) {
@@ -51,14 +51,17 @@ export const customersApi = {
 
   /**
    * PUT /api/v1/customers/{id} - Update customer
+   * With a version, the update is rejected (412) if someone else changed the customer since it was loaded.
    */
   updateCustomer: async (
     id: string,
     data: CustomerUpdateRequest,
+    version?: number,
   ): Promise<Customer> => {
     const response = await apiClient.put<Customer>(
       `${CUSTOMERS_ENDPOINT}/${id}`,
       data,
+      version === undefined ? undefined : { headers: { "If-Match": `"${version}"` } },
     );
     return response.data;
   },
@@ -24,6 +24,7 @@ export interface Customer {
   status: CustomerStatus;
   createdAt: string;
   updatedAt: string;
+  version: number;
 }
 
 export interface CustomerCreateRequest {